@@ -0,0 +1,29 @@
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const CATEGORY = __ENV.CATEGORY || 'Comedy';
+const API_VERSION = __ENV.API_VERSION || 'v1';
+
+export const options = {
+    scenarios: {
+        categoryPages: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: Number(__ENV.VUS || 500) },
+                { duration: __ENV.DURATION || '2m', target: Number(__ENV.VUS || 500) },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const cursor = Math.floor(Math.random() * 1000);
+    const response = http.get(`${BASE_URL}/api/${API_VERSION}/book/category?name=${CATEGORY}&cursor=${cursor}&limit=50`);
+    check(response, {
+        'status is 200 or 503': (r) => r.status === 200 || r.status === 503,
+    });
+}
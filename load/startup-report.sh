@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Builds the image of every startup mode and reports its time to the first served request and its RSS.
+# Usage: load/startup-report.sh [mode...]    (modes: jvm cds aot native, all by default)
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+if [ $# -gt 0 ]; then MODES=("$@"); else MODES=(jvm cds aot native); fi
+CONTAINER=books-api-startup
+NETWORK=books-api-env_default
+URL="http://localhost:8080/api/v1/book/category?name=Comedy"
+
+docker compose --file ./docker/docker-compose-env.yaml up -d
+trap 'docker rm -f "$CONTAINER" >/dev/null 2>&1 || true' EXIT
+
+printf '%-8s %22s %10s\n' "mode" "first request, ms" "RSS, MB"
+for mode in "${MODES[@]}"; do
+    docker build --quiet --target "$mode" --tag "books-api:$mode" . >/dev/null
+
+    start=$(date +%s%N)
+    docker run --detach --name "$CONTAINER" --network "$NETWORK" --publish 8080:8080 \
+        --env POSTGRES_HOST=postgres --env REDIS_HOST=redis "books-api:$mode" >/dev/null
+    until [ "$(curl --silent --output /dev/null --write-out '%{http_code}' "$URL")" = "200" ]; do
+        sleep 0.05
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    rss=$(docker top "$CONTAINER" -o rss | awk 'NR > 1 { sum += $1 } END { printf "%d", sum / 1024 }')
+
+    printf '%-8s %22d %10d\n' "$mode" "$elapsed" "$rss"
+    docker rm -f "$CONTAINER" >/dev/null
+done
@@ -0,0 +1,44 @@
+package com.allitov.booksapi.benchmark;
+
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.Category;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import lombok.experimental.UtilityClass;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@UtilityClass
+public class BenchmarkData {
+
+    public Book createBook(long id, Category category) {
+        return Book.builder()
+                .id(id)
+                .name("Song of the Bloodred Flower (Laulu tulipunaisesta kukasta) " + id)
+                .author("Nels Lamerton")
+                .category(category)
+                .publicationDate(LocalDate.of(2012, 6, 20).plusDays(id % 1000))
+                .build();
+    }
+
+    public List<Book> createCategoryPage(int size) {
+        Category category = new Category(1L, "Thriller");
+        List<Book> books = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            books.add(createBook(id, category));
+        }
+
+        return books;
+    }
+
+    public List<BookResponse> createCategoryResponsePage(int size) {
+        List<BookResponse> books = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Book book = createBook(id, null);
+            books.add(new BookResponse(id, book.getName(), book.getAuthor(), "Thriller", book.getPublicationDate()));
+        }
+
+        return books;
+    }
+}
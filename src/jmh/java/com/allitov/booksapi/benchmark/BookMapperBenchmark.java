@@ -0,0 +1,49 @@
+package com.allitov.booksapi.benchmark;
+
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.web.dto.response.BookListResponse;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import com.allitov.booksapi.web.mapper.BookMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookMapperBenchmark {
+
+    @Param({"50", "1000", "10000"})
+    private int categorySize;
+
+    private final BookMapper bookMapper = new BookMapper();
+
+    private List<Book> categoryPage;
+
+    private List<BookResponse> categoryResponsePage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        categoryPage = BenchmarkData.createCategoryPage(categorySize);
+        categoryResponsePage = BenchmarkData.createCategoryResponsePage(categorySize);
+    }
+
+    @Benchmark
+    public BookResponse bookToResponse() {
+        return bookMapper.bookToResponse(categoryPage.getFirst());
+    }
+
+    @Benchmark
+    public BookListResponse bookListToBookListResponse() {
+        return bookMapper.bookListToBookListResponse(categoryPage);
+    }
+
+    @Benchmark
+    public BookListResponse responseListToBookListResponse() {
+        return bookMapper.responseListToBookListResponse(categoryResponsePage, categorySize);
+    }
+}
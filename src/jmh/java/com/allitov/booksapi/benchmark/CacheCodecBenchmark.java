@@ -0,0 +1,72 @@
+package com.allitov.booksapi.benchmark;
+
+import com.allitov.booksapi.cache.CacheCodec;
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.Category;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares size and encode/decode time of cached values for every {@link CacheCodec}.
+ * Encoded sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    @Param({"JDK", "BINARY"})
+    private CacheCodec codec;
+
+    @Param({"50", "1000", "10000"})
+    private int categorySize;
+
+    private RedisSerializer<Object> serializer;
+
+    private Book book;
+
+    private List<BookResponse> categoryPage;
+
+    private byte[] encodedBook;
+
+    private byte[] encodedCategoryPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = codec.serializer();
+        book = BenchmarkData.createBook(1L, new Category(1L, "Thriller"));
+        categoryPage = BenchmarkData.createCategoryResponsePage(categorySize);
+        encodedBook = serializer.serialize(book);
+        encodedCategoryPage = serializer.serialize(categoryPage);
+
+        System.out.printf("%n%s: book %d bytes, %d books %d bytes%n",
+                codec, encodedBook.length, categorySize, encodedCategoryPage.length);
+    }
+
+    @Benchmark
+    public byte[] encodeBook() {
+        return serializer.serialize(book);
+    }
+
+    @Benchmark
+    public Object decodeBook() {
+        return serializer.deserialize(encodedBook);
+    }
+
+    @Benchmark
+    public byte[] encodeCategory() {
+        return serializer.serialize(categoryPage);
+    }
+
+    @Benchmark
+    public Object decodeCategory() {
+        return serializer.deserialize(encodedCategoryPage);
+    }
+}
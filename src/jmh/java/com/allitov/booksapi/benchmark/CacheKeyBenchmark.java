@@ -0,0 +1,54 @@
+package com.allitov.booksapi.benchmark;
+
+import com.allitov.booksapi.model.service.impl.DatabaseBookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures evaluation of the SpEL cache key expressions declared on {@link DatabaseBookService}.
+ * <p>
+ * Expressions are read from the annotations, parsed once and evaluated in a new method-based
+ * context on every call, the same way the caching interceptor does it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheKeyBenchmark {
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private Method bookSearchMethod;
+
+    private Expression bookSearchKey;
+
+    private Object[] bookSearchArguments;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        SpelExpressionParser parser = new SpelExpressionParser();
+
+        bookSearchMethod = DatabaseBookService.class.getMethod("searchBooks", String.class, int.class, int.class);
+        bookSearchKey = parser.parseExpression(bookSearchMethod.getAnnotation(Cacheable.class).key());
+        bookSearchArguments = new Object[] {"  Lost   Universe ", 0, 20};
+    }
+
+    @Benchmark
+    public Object bookSearchKey() {
+        return bookSearchKey.getValue(createContext(bookSearchMethod, bookSearchArguments));
+    }
+
+    private MethodBasedEvaluationContext createContext(Method method, Object[] arguments) {
+        return new MethodBasedEvaluationContext(null, method, arguments, parameterNameDiscoverer);
+    }
+}
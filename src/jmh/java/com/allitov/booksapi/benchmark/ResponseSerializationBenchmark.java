@@ -0,0 +1,77 @@
+package com.allitov.booksapi.benchmark;
+
+import com.allitov.booksapi.web.converter.ResponseBodyEncoder;
+import com.allitov.booksapi.web.converter.ResponseFormat;
+import com.allitov.booksapi.web.dto.response.BookListResponse;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import com.allitov.booksapi.web.mapper.BookMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares size and encode/decode time of response bodies for every {@link ResponseFormat}, with object
+ * mappers configured like the ones of the application. Encoded sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE", "PROTOBUF"})
+    private ResponseFormat format;
+
+    @Param({"50", "1000", "10000"})
+    private int categorySize;
+
+    private ResponseBodyEncoder responseBodyEncoder;
+
+    private BookResponse bookResponse;
+
+    private BookListResponse bookListResponse;
+
+    private byte[] encodedBookListResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        responseBodyEncoder = new ResponseBodyEncoder(
+                objectMapperBuilder().build(),
+                objectMapperBuilder()
+        );
+        BookMapper bookMapper = new BookMapper();
+        bookListResponse = bookMapper.responseListToBookListResponse(
+                BenchmarkData.createCategoryResponsePage(categorySize), categorySize);
+        bookResponse = bookListResponse.getBooks().getFirst();
+        encodedBookListResponse = responseBodyEncoder.encode(format, bookListResponse);
+
+        System.out.printf("%n%s: book %d bytes, %d books %d bytes%n",
+                format, responseBodyEncoder.encode(format, bookResponse).length,
+                categorySize, encodedBookListResponse.length);
+    }
+
+    @Benchmark
+    public byte[] writeBookResponse() throws IOException {
+        return responseBodyEncoder.encode(format, bookResponse);
+    }
+
+    @Benchmark
+    public byte[] writeBookListResponse() throws IOException {
+        return responseBodyEncoder.encode(format, bookListResponse);
+    }
+
+    @Benchmark
+    public BookListResponse readBookListResponse() throws IOException {
+        return responseBodyEncoder.decode(format, encodedBookListResponse, BookListResponse.class);
+    }
+
+    private static Jackson2ObjectMapperBuilder objectMapperBuilder() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
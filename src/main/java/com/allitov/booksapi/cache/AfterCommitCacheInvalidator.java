@@ -0,0 +1,129 @@
+package com.allitov.booksapi.cache;
+
+import com.allitov.booksapi.configuration.AppCacheProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evicts cache entries and increments category versions once the current transaction has committed.
+ * <p>
+ * Invalidating before the commit lets a concurrent reader load the old rows and cache them again
+ * for the whole TTL. After the commit only a reader that loaded the old rows just before it can still
+ * put them back, so an optional second invalidation after a short delay removes such entries as well.
+ * Outside a transaction the invalidation happens at once. A failed invalidation is logged rather than
+ * thrown, because the write it belongs to has already been committed. Written entries can be put into
+ * a cache after the commit the same way, so the first read after the write is a hit.
+ */
+@Slf4j
+@Component
+public class AfterCommitCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    private final CategoryVersionRegistry categoryVersionRegistry;
+
+    private final Duration secondInvalidationDelay;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("cache-invalidator").daemon().factory());
+
+    public AfterCommitCacheInvalidator(CacheManager cacheManager, CategoryVersionRegistry categoryVersionRegistry,
+                                       AppCacheProperties cacheProperties) {
+        this.cacheManager = cacheManager;
+        this.categoryVersionRegistry = categoryVersionRegistry;
+        this.secondInvalidationDelay = cacheProperties.getSecondInvalidationDelay();
+    }
+
+    public void evictAfterCommit(@NonNull String cacheName, @NonNull Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<?> evictedKeys = List.copyOf(keys);
+        runAfterCommit(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            evictedKeys.forEach(cache::evictIfPresent);
+        });
+    }
+
+    /**
+     * Increments the category versions once after the commit. Incrementing is not idempotent, so unlike
+     * the evictions it is not repeated by the second invalidation.
+     */
+    public void incrementVersionsAfterCommit(@NonNull Collection<String> categoryNames) {
+        if (categoryNames.isEmpty()) {
+            return;
+        }
+
+        List<String> incrementedCategoryNames = List.copyOf(categoryNames);
+        afterCommit(() -> runLogged(() -> categoryVersionRegistry.incrementVersions(incrementedCategoryNames)));
+    }
+
+    /**
+     * Puts the written value into the cache after the commit. The second invalidation, if the delay is set,
+     * evicts the entry instead of putting the value again, because a later write may have replaced it by then.
+     */
+    public void putAfterCommit(@NonNull String cacheName, @NonNull Object key, @NonNull Object value) {
+        afterCommit(() -> {
+            runLogged(() -> cacheManager.getCache(cacheName).put(key, value));
+            scheduleSecondInvalidation(() -> cacheManager.getCache(cacheName).evictIfPresent(key));
+        });
+    }
+
+    /**
+     * Runs an idempotent cache invalidation after the commit, and once more after the delay if it is set.
+     */
+    public void runAfterCommit(@NonNull Runnable invalidation) {
+        afterCommit(() -> {
+            runLogged(invalidation);
+            scheduleSecondInvalidation(invalidation);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void scheduleSecondInvalidation(Runnable invalidation) {
+        if (secondInvalidationDelay.isPositive()) {
+            scheduler.schedule(() -> runLogged(invalidation),
+                    secondInvalidationDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void runLogged(Runnable invalidation) {
+        try {
+            invalidation.run();
+        } catch (RuntimeException e) {
+            log.error("Failed to invalidate cache after commit", e);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.allitov.booksapi.cache;
+
+import com.allitov.booksapi.configuration.AppCacheProperties;
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.BookKey;
+import com.allitov.booksapi.model.data.BookNameAndAuthor;
+import com.allitov.booksapi.model.repository.BookRepository;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.connection.BitFieldSubCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bloom filter of the existing (name, author) pairs of books, kept in a Redis bitmap.
+ * <p>
+ * A pair the filter does not contain certainly does not exist, so its lookup needs no database query.
+ * Pairs are added on every write; removed books stay in the filter as false positives until it is rebuilt.
+ * A built filter has a marker bit set after the bits of the pairs, so a bitmap lost by Redis and recreated
+ * by a write is not mistaken for a built filter. The filter is built from the database at startup and,
+ * unless disabled, in the background when a lookup finds the marker missing. Until it is built every pair
+ * is reported as possibly existing.
+ */
+@Slf4j
+@Component
+public class BookBloomFilter {
+
+    private static final String BITS_KEY = "bookFilter::bits";
+
+    private static final byte[] BITS_KEY_BYTES = BITS_KEY.getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] BUILD_KEY_BYTES = "bookFilter::build".getBytes(StandardCharsets.UTF_8);
+
+    private static final int BUILD_BATCH_SIZE = 10_000;
+
+    private static final BitFieldSubCommands.BitFieldType BIT = BitFieldSubCommands.BitFieldType.unsigned(1);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final BookRepository bookRepository;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    private final boolean rebuildWhenMissing;
+
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    public BookBloomFilter(StringRedisTemplate stringRedisTemplate, BookRepository bookRepository,
+                           AppCacheProperties cacheProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.bookRepository = bookRepository;
+
+        AppCacheProperties.BookFilter filter = cacheProperties.getBookFilter();
+        double expectedInsertions = filter.getExpectedInsertions();
+        double falsePositiveProbability = filter.getFalsePositiveProbability();
+        this.bitCount = (long) Math.ceil(
+                -expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.hashCount = Math.max(1, (int) Math.round(bitCount / expectedInsertions * Math.log(2)));
+        this.rebuildWhenMissing = filter.isRebuildWhenMissing();
+    }
+
+    /**
+     * Returns {@code false} if the book certainly does not exist.
+     */
+    public boolean mightContain(@NonNull String bookName, @NonNull String author) {
+        return allBitsSetOrNotReady(getCommands(bookName, author)).getFirst();
+    }
+
+    /**
+     * Checks the books in a single round trip.
+     *
+     * @return for every book {@code false} if it certainly does not exist
+     */
+    public List<Boolean> mightContainAll(@NonNull Collection<BookKey> keys) {
+        return allBitsSetOrNotReady(keys.stream()
+                .map(key -> getCommands(key.name(), key.author()))
+                .toArray(BitFieldSubCommands[]::new));
+    }
+
+    /**
+     * Adds the book to the filter.
+     *
+     * @return {@code true} if the filter might have contained the book before
+     */
+    public boolean add(@NonNull String bookName, @NonNull String author) {
+        return allBitsSetOrNotReady(setCommands(bookName, author)).getFirst();
+    }
+
+    /**
+     * Adds the books to the filter in a single round trip.
+     *
+     * @return for every book {@code true} if the filter might have contained it before
+     */
+    public List<Boolean> addAll(@NonNull Collection<Book> books) {
+        return allBitsSetOrNotReady(books.stream()
+                .map(book -> setCommands(book.getName(), book.getAuthor()))
+                .toArray(BitFieldSubCommands[]::new));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfMissing() {
+        if (!building.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            if (!isReady()) {
+                build();
+            }
+        } finally {
+            building.set(false);
+        }
+    }
+
+    private void build() {
+        byte[] bits = new byte[(int) ((bitCount + 1 + 7) / 8)];
+        bits[(int) (bitCount >>> 3)] |= (byte) (0x80 >>> (bitCount & 7));
+        long lastId = 0L;
+        long bookCount = 0L;
+        List<BookNameAndAuthor> books;
+        do {
+            books = bookRepository.findBookKeysByIdGreaterThanOrderByIdAsc(lastId, Limit.of(BUILD_BATCH_SIZE));
+            for (BookNameAndAuthor book : books) {
+                for (long offset : offsets(book.getName(), book.getAuthor())) {
+                    bits[(int) (offset >>> 3)] |= (byte) (0x80 >>> (offset & 7));
+                }
+                lastId = book.getId();
+            }
+            bookCount += books.size();
+        } while (books.size() == BUILD_BATCH_SIZE);
+
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.stringCommands().set(BUILD_KEY_BYTES, bits);
+            connection.stringCommands().bitOp(
+                    RedisStringCommands.BitOperation.OR, BITS_KEY_BYTES, BITS_KEY_BYTES, BUILD_KEY_BYTES);
+            connection.keyCommands().del(BUILD_KEY_BYTES);
+
+            return null;
+        });
+        log.info("Built book filter of {} books with {} bits and {} hash functions", bookCount, bitCount, hashCount);
+    }
+
+    private boolean isReady() {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().getBit(BITS_KEY, bitCount));
+    }
+
+    private void buildInBackground() {
+        if (building.get()) {
+            return;
+        }
+
+        log.warn("Book filter is missing in Redis, rebuilding it");
+        Thread.ofVirtual().name("book-filter-build").start(() -> {
+            try {
+                buildIfMissing();
+            } catch (RuntimeException e) {
+                log.error("Failed to build book filter", e);
+            }
+        });
+    }
+
+    /**
+     * Runs the commands, each of which ends with a read of the marker bit.
+     */
+    private List<Boolean> allBitsSetOrNotReady(BitFieldSubCommands... commands) {
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (BitFieldSubCommands command : commands) {
+                connection.stringCommands().bitField(BITS_KEY_BYTES, command);
+            }
+
+            return null;
+        });
+
+        List<Boolean> allBitsSet = new ArrayList<>(commands.length);
+        boolean ready = true;
+        for (int i = 0; i < commands.length; i++) {
+            List<?> bits = (List<?>) results.get(i);
+            boolean commandReady = isSet(bits.getLast());
+            ready &= commandReady;
+            allBitsSet.add(!commandReady || bits.subList(0, hashCount).stream().allMatch(BookBloomFilter::isSet));
+        }
+        if (!ready && rebuildWhenMissing) {
+            buildInBackground();
+        }
+
+        return allBitsSet;
+    }
+
+    private BitFieldSubCommands getCommands(String bookName, String author) {
+        BitFieldSubCommands commands = BitFieldSubCommands.create();
+        for (long offset : offsets(bookName, author)) {
+            commands = commands.get(BIT).valueAt(offset);
+        }
+
+        return commands.get(BIT).valueAt(bitCount);
+    }
+
+    private BitFieldSubCommands setCommands(String bookName, String author) {
+        BitFieldSubCommands commands = BitFieldSubCommands.create();
+        for (long offset : offsets(bookName, author)) {
+            commands = commands.set(BIT).valueAt(offset).to(1);
+        }
+
+        return commands.get(BIT).valueAt(bitCount);
+    }
+
+    private static boolean isSet(Object bit) {
+        return Long.valueOf(1L).equals(bit);
+    }
+
+    long[] offsets(String bookName, String author) {
+        long hash1 = fnv1a(bookName, author);
+        long hash2 = mix(hash1) | 1L;
+        long[] offsets = new long[hashCount];
+        for (int i = 0; i < hashCount; i++) {
+            offsets[i] = Math.floorMod(hash1 + i * hash2, bitCount);
+        }
+
+        return offsets;
+    }
+
+    private static long fnv1a(String bookName, String author) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : (bookName + '\u0000' + author).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+
+        return value ^ (value >>> 31);
+    }
+}
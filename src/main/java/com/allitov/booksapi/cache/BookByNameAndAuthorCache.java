@@ -0,0 +1,113 @@
+package com.allitov.booksapi.cache;
+
+import com.allitov.booksapi.configuration.AppCacheProperties;
+import com.allitov.booksapi.datasource.ReplicaRoutingContext;
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.BookKey;
+import lombok.NonNull;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Batch access to the entries of the {@code bookByNameAndAuthor} cache.
+ * <p>
+ * Reads and writes the same Redis entries as the cache of single lookups, with the same keys, codec and
+ * TTLs, but reads all requested books with a single {@code MGET} and stores the loaded ones in a single
+ * pipeline. Entries are evicted by the writes of books as before. The local cache level is not used.
+ * Missing books are loaded from the primary database, never from a read replica.
+ */
+@Component
+public class BookByNameAndAuthorCache {
+
+    public static final String CACHE_NAME = "bookByNameAndAuthor";
+
+    private static final String KEY_PREFIX = CACHE_NAME + "::";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final RedisSerializer<Object> serializer;
+
+    private final JitteredTtlFunction ttlFunction;
+
+    public BookByNameAndAuthorCache(StringRedisTemplate stringRedisTemplate, AppCacheProperties cacheProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.serializer = cacheProperties.codecOf(CACHE_NAME).serializer();
+        this.ttlFunction = new JitteredTtlFunction(
+                cacheProperties.ttlOf(CACHE_NAME),
+                cacheProperties.ttlJitterOf(CACHE_NAME),
+                cacheProperties.getNullValueTtl()
+        );
+    }
+
+    /**
+     * Returns the books with the given names and authors that exist, cached or loaded.
+     *
+     * @param booksLoader loads the keys missing from the cache. A key mapped to {@code null} has no book
+     *                    and is cached as such, a key left out of the result is not cached
+     */
+    public Map<BookKey, Book> getBooks(@NonNull List<BookKey> keys,
+                                       @NonNull Function<List<BookKey>, Map<BookKey, Book>> booksLoader) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+
+        byte[][] cacheKeys = keys.stream()
+                .map(key -> bytes(cacheKey(key)))
+                .toArray(byte[][]::new);
+        List<byte[]> values = stringRedisTemplate.execute(
+                (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(cacheKeys));
+
+        Map<BookKey, Book> books = new HashMap<>();
+        List<BookKey> missingKeys = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] value = values == null ? null : values.get(i);
+            if (value == null) {
+                missingKeys.add(keys.get(i));
+            } else if (serializer.deserialize(value) instanceof Book book) {
+                books.put(keys.get(i), book);
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return books;
+        }
+
+        Map<BookKey, Book> loadedBooks = ReplicaRoutingContext.getOnPrimary(() -> booksLoader.apply(missingKeys));
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            loadedBooks.forEach((key, book) -> connection.stringCommands().set(
+                    bytes(cacheKey(key)),
+                    serializer.serialize(book == null ? NullValue.INSTANCE : book),
+                    Expiration.from(ttlFunction.getTimeToLive(key, book)),
+                    RedisStringCommands.SetOption.upsert()
+            ));
+
+            return null;
+        });
+        loadedBooks.forEach((key, book) -> {
+            if (book != null) {
+                books.put(key, book);
+            }
+        });
+
+        return books;
+    }
+
+    private static String cacheKey(BookKey key) {
+        return KEY_PREFIX + key.name() + "-" + key.author();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,338 @@
+package com.allitov.booksapi.cache;
+
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.Category;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compact binary serializer for cached books.
+ * <p>
+ * Encodes {@link Book}, lists of books, {@link BookResponse}, lists of them and {@link NullValue}
+ * with a fixed field layout, variable-length numbers and without class descriptors. A category
+ * shared by consecutive books of a list is written only once. Any other value, as well as reading an entry
+ * written by the JDK serializer, is delegated to {@link RedisSerializer#java()}, so a cache
+ * can be switched to this format without flushing it.
+ */
+public class BookRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte FORMAT_MARKER = (byte) 0xB1;
+
+    private static final byte NULL_VALUE = 0;
+
+    private static final byte BOOK = 1;
+
+    private static final byte BOOK_LIST = 2;
+
+    private static final byte BOOK_RESPONSE_LIST = 3;
+
+    private static final byte BOOK_RESPONSE = 4;
+
+    private static final int ID_PRESENT = 1;
+
+    private static final int NAME_PRESENT = 1 << 1;
+
+    private static final int AUTHOR_PRESENT = 1 << 2;
+
+    private static final int CATEGORY_PRESENT = 1 << 3;
+
+    private static final int SAME_CATEGORY = 1 << 4;
+
+    private static final int PUBLICATION_DATE_PRESENT = 1 << 5;
+
+    private static final int CATEGORY_ID_PRESENT = 1;
+
+    private static final int CATEGORY_NAME_PRESENT = 1 << 1;
+
+    private final RedisSerializer<Object> fallbackSerializer = RedisSerializer.java();
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value instanceof NullValue) {
+            return new byte[] {FORMAT_MARKER, NULL_VALUE};
+        }
+        if (value instanceof Book book) {
+            Output output = new Output(64);
+            output.writeByte(FORMAT_MARKER);
+            output.writeByte(BOOK);
+            writeBook(output, book, null);
+
+            return output.toByteArray();
+        }
+        if (value instanceof List<?> list && list.stream().allMatch(Book.class::isInstance)) {
+            Output output = new Output(16 + list.size() * 48);
+            output.writeByte(FORMAT_MARKER);
+            output.writeByte(BOOK_LIST);
+            output.writeVarLong(list.size());
+            Category previousCategory = null;
+            for (Object element : list) {
+                Book book = (Book) element;
+                writeBook(output, book, previousCategory);
+                previousCategory = book.getCategory();
+            }
+
+            return output.toByteArray();
+        }
+        if (value instanceof BookResponse book) {
+            Output output = new Output(64);
+            output.writeByte(FORMAT_MARKER);
+            output.writeByte(BOOK_RESPONSE);
+            writeBookResponse(output, book, null);
+
+            return output.toByteArray();
+        }
+        if (value instanceof List<?> list && list.stream().allMatch(BookResponse.class::isInstance)) {
+            Output output = new Output(16 + list.size() * 48);
+            output.writeByte(FORMAT_MARKER);
+            output.writeByte(BOOK_RESPONSE_LIST);
+            output.writeVarLong(list.size());
+            String previousCategoryName = null;
+            for (Object element : list) {
+                BookResponse book = (BookResponse) element;
+                writeBookResponse(output, book, previousCategoryName);
+                previousCategoryName = book.getCategoryName();
+            }
+
+            return output.toByteArray();
+        }
+
+        return fallbackSerializer.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != FORMAT_MARKER) {
+            return fallbackSerializer.deserialize(bytes);
+        }
+
+        try {
+            ByteBuffer input = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+            byte type = input.get();
+
+            return switch (type) {
+                case NULL_VALUE -> NullValue.INSTANCE;
+                case BOOK -> readBook(input, null);
+                case BOOK_LIST -> {
+                    int size = (int) readVarLong(input);
+                    List<Book> books = new ArrayList<>(size);
+                    Category previousCategory = null;
+                    for (int i = 0; i < size; i++) {
+                        Book book = readBook(input, previousCategory);
+                        previousCategory = book.getCategory();
+                        books.add(book);
+                    }
+
+                    yield books;
+                }
+                case BOOK_RESPONSE_LIST -> {
+                    int size = (int) readVarLong(input);
+                    List<BookResponse> books = new ArrayList<>(size);
+                    String previousCategoryName = null;
+                    for (int i = 0; i < size; i++) {
+                        BookResponse book = readBookResponse(input, previousCategoryName);
+                        previousCategoryName = book.getCategoryName();
+                        books.add(book);
+                    }
+
+                    yield books;
+                }
+                case BOOK_RESPONSE -> readBookResponse(input, null);
+                default -> throw new SerializationException("Unknown cached value type: " + type);
+            };
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot deserialize cached value", e);
+        }
+    }
+
+    private void writeBook(Output output, Book book, Category previousCategory) {
+        Category category = book.getCategory();
+        boolean sameCategory = category != null && previousCategory != null
+                && Objects.equals(category.getId(), previousCategory.getId())
+                && Objects.equals(category.getName(), previousCategory.getName());
+
+        int flags = (book.getId() != null ? ID_PRESENT : 0)
+                | (book.getName() != null ? NAME_PRESENT : 0)
+                | (book.getAuthor() != null ? AUTHOR_PRESENT : 0)
+                | (category != null ? CATEGORY_PRESENT : 0)
+                | (sameCategory ? SAME_CATEGORY : 0)
+                | (book.getPublicationDate() != null ? PUBLICATION_DATE_PRESENT : 0);
+        output.writeByte(flags);
+
+        if (book.getId() != null) {
+            output.writeVarLong(book.getId());
+        }
+        if (book.getName() != null) {
+            output.writeString(book.getName());
+        }
+        if (book.getAuthor() != null) {
+            output.writeString(book.getAuthor());
+        }
+        if (category != null && !sameCategory) {
+            output.writeByte((category.getId() != null ? CATEGORY_ID_PRESENT : 0)
+                    | (category.getName() != null ? CATEGORY_NAME_PRESENT : 0));
+            if (category.getId() != null) {
+                output.writeVarLong(category.getId());
+            }
+            if (category.getName() != null) {
+                output.writeString(category.getName());
+            }
+        }
+        if (book.getPublicationDate() != null) {
+            output.writeVarLong(zigZag(book.getPublicationDate().toEpochDay()));
+        }
+    }
+
+    private Book readBook(ByteBuffer input, Category previousCategory) {
+        int flags = input.get();
+        Book.BookBuilder book = Book.builder();
+
+        if ((flags & ID_PRESENT) != 0) {
+            book.id(readVarLong(input));
+        }
+        if ((flags & NAME_PRESENT) != 0) {
+            book.name(readString(input));
+        }
+        if ((flags & AUTHOR_PRESENT) != 0) {
+            book.author(readString(input));
+        }
+        if ((flags & SAME_CATEGORY) != 0) {
+            book.category(previousCategory);
+        } else if ((flags & CATEGORY_PRESENT) != 0) {
+            int categoryFlags = input.get();
+            Category.CategoryBuilder category = Category.builder();
+            if ((categoryFlags & CATEGORY_ID_PRESENT) != 0) {
+                category.id(readVarLong(input));
+            }
+            if ((categoryFlags & CATEGORY_NAME_PRESENT) != 0) {
+                category.name(readString(input));
+            }
+            book.category(category.build());
+        }
+        if ((flags & PUBLICATION_DATE_PRESENT) != 0) {
+            book.publicationDate(LocalDate.ofEpochDay(unZigZag(readVarLong(input))));
+        }
+
+        return book.build();
+    }
+
+    private void writeBookResponse(Output output, BookResponse book, String previousCategoryName) {
+        boolean sameCategory = book.getCategoryName() != null
+                && book.getCategoryName().equals(previousCategoryName);
+
+        int flags = (book.getId() != null ? ID_PRESENT : 0)
+                | (book.getName() != null ? NAME_PRESENT : 0)
+                | (book.getAuthor() != null ? AUTHOR_PRESENT : 0)
+                | (book.getCategoryName() != null ? CATEGORY_PRESENT : 0)
+                | (sameCategory ? SAME_CATEGORY : 0)
+                | (book.getPublicationDate() != null ? PUBLICATION_DATE_PRESENT : 0);
+        output.writeByte(flags);
+
+        if (book.getId() != null) {
+            output.writeVarLong(book.getId());
+        }
+        if (book.getName() != null) {
+            output.writeString(book.getName());
+        }
+        if (book.getAuthor() != null) {
+            output.writeString(book.getAuthor());
+        }
+        if (book.getCategoryName() != null && !sameCategory) {
+            output.writeString(book.getCategoryName());
+        }
+        if (book.getPublicationDate() != null) {
+            output.writeVarLong(zigZag(book.getPublicationDate().toEpochDay()));
+        }
+    }
+
+    private BookResponse readBookResponse(ByteBuffer input, String previousCategoryName) {
+        int flags = input.get();
+        BookResponse.BookResponseBuilder book = BookResponse.builder();
+
+        if ((flags & ID_PRESENT) != 0) {
+            book.id(readVarLong(input));
+        }
+        if ((flags & NAME_PRESENT) != 0) {
+            book.name(readString(input));
+        }
+        if ((flags & AUTHOR_PRESENT) != 0) {
+            book.author(readString(input));
+        }
+        if ((flags & SAME_CATEGORY) != 0) {
+            book.categoryName(previousCategoryName);
+        } else if ((flags & CATEGORY_PRESENT) != 0) {
+            book.categoryName(readString(input));
+        }
+        if ((flags & PUBLICATION_DATE_PRESENT) != 0) {
+            book.publicationDate(LocalDate.ofEpochDay(unZigZag(readVarLong(input))));
+        }
+
+        return book.build();
+    }
+
+    private static long readVarLong(ByteBuffer input) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = input.get();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+
+        return value;
+    }
+
+    private static String readString(ByteBuffer input) {
+        int length = (int) readVarLong(input);
+        String value = new String(input.array(), input.position(), length, StandardCharsets.UTF_8);
+        input.position(input.position() + length);
+
+        return value;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static class Output extends ByteArrayOutputStream {
+
+        Output(int size) {
+            super(size);
+        }
+
+        void writeByte(int value) {
+            write(value);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+    }
+}
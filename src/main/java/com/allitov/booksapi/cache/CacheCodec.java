@@ -0,0 +1,31 @@
+package com.allitov.booksapi.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.function.Supplier;
+
+/**
+ * Formats of values stored in Redis caches.
+ */
+public enum CacheCodec {
+
+    /**
+     * Standard Java serialization.
+     */
+    JDK(RedisSerializer::java),
+
+    /**
+     * Compact binary format of {@link BookRedisSerializer}.
+     */
+    BINARY(BookRedisSerializer::new);
+
+    private final Supplier<RedisSerializer<Object>> serializerFactory;
+
+    CacheCodec(Supplier<RedisSerializer<Object>> serializerFactory) {
+        this.serializerFactory = serializerFactory;
+    }
+
+    public RedisSerializer<Object> serializer() {
+        return serializerFactory.get();
+    }
+}
@@ -0,0 +1,11 @@
+package com.allitov.booksapi.cache;
+
+/**
+ * Message broadcast to other nodes when a cache entry changes.
+ *
+ * @param origin    ID of the node that changed the entry
+ * @param cacheName name of the changed cache
+ * @param key       changed key or {@code null} if the whole cache was cleared
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, String key) {
+}
@@ -0,0 +1,311 @@
+package com.allitov.booksapi.cache;
+
+import com.allitov.booksapi.configuration.AppCacheProperties;
+import com.allitov.booksapi.datasource.ReplicaRoutingContext;
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import lombok.NonNull;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.zset.DefaultTuple;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Normalized cache of the books of categories: an entry per book and a sorted set of book IDs per category.
+ * <p>
+ * A page of a category is read with a range query on the IDs of the category and a single {@code MGET}
+ * of the book entries, and only the books missing from the cache are loaded from the database. A write
+ * changes the sets of at most two categories and removes a single book entry instead of invalidating
+ * every cached page of the category. The IDs of a category are loaded all at once on its first read,
+ * and writes change only sets that are already loaded. A loaded set is stored only if the category version
+ * has not changed during the load, since a write committed meanwhile skipped the set that was not stored yet.
+ * Every set holds a marker member with score 0, so the set of an empty category is cached too. IDs and books are loaded from the primary database,
+ * never from a read replica.
+ */
+@Component
+public class CategoryBookCache {
+
+    public static final String CACHE_NAME = "categoryBooks";
+
+    private static final String CATEGORY_KEY_PREFIX = CACHE_NAME + "::ids::";
+
+    private static final String BOOK_KEY_PREFIX = CACHE_NAME + "::book::";
+
+    private static final String LOAD_KEY_PREFIX = CACHE_NAME + "::load::";
+
+    private static final String EMPTY_MARKER = "0";
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private static final RedisScript<Long> ADD_SCRIPT = RedisScript.of("""
+            for i = 1, #KEYS do
+                if redis.call('EXISTS', KEYS[i]) == 1 then
+                    redis.call('ZADD', KEYS[i], ARGV[i], ARGV[i])
+                end
+            end
+            return #KEYS
+            """, Long.class);
+
+    private static final RedisScript<Long> STORE_SCRIPT = RedisScript.of("""
+            if (redis.call('GET', KEYS[3]) or '') ~= ARGV[1] then
+                redis.call('DEL', KEYS[2])
+                return 0
+            end
+            redis.call('RENAME', KEYS[2], KEYS[1])
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> MOVE_SCRIPT = RedisScript.of("""
+            redis.call('DEL', KEYS[1])
+            redis.call('ZREM', KEYS[2], ARGV[1])
+            if #KEYS > 2 and redis.call('EXISTS', KEYS[3]) == 1 then
+                redis.call('ZADD', KEYS[3], ARGV[1], ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final RedisSerializer<Object> serializer = new BookRedisSerializer();
+
+    private final Duration categoryTtl;
+
+    private final JitteredTtlFunction bookTtlFunction;
+
+    public CategoryBookCache(StringRedisTemplate stringRedisTemplate, AppCacheProperties cacheProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.categoryTtl = cacheProperties.ttlOf(CACHE_NAME);
+        this.bookTtlFunction = new JitteredTtlFunction(
+                cacheProperties.ttlOf(CACHE_NAME),
+                cacheProperties.ttlJitterOf(CACHE_NAME),
+                cacheProperties.getNullValueTtl()
+        );
+    }
+
+    /**
+     * Returns up to {@code limit} books of the category with IDs greater than {@code lastId} in ID order.
+     *
+     * @param bookIdsLoader loads the IDs of all books of the category in ascending order
+     * @param booksLoader loads the books with the given IDs
+     */
+    public List<BookResponse> getPage(@NonNull String categoryName, long lastId, int limit,
+                                      @NonNull Supplier<List<Long>> bookIdsLoader,
+                                      @NonNull Function<List<Long>, List<BookResponse>> booksLoader) {
+        List<Long> bookIds = findPageBookIds(categoryName, lastId, limit, bookIdsLoader);
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, BookResponse> books = getBooks(bookIds, booksLoader);
+        List<String> staleBookIds = bookIds.stream()
+                .filter(bookId -> !books.containsKey(bookId)
+                        || !categoryName.equals(books.get(bookId).getCategoryName()))
+                .map(String::valueOf)
+                .toList();
+        if (!staleBookIds.isEmpty()) {
+            stringRedisTemplate.opsForZSet().remove(categoryKey(categoryName), staleBookIds.toArray());
+
+            return getPage(categoryName, lastId, limit, bookIdsLoader, booksLoader);
+        }
+
+        return bookIds.stream()
+                .map(books::get)
+                .toList();
+    }
+
+    /**
+     * Adds the created books to the loaded sets of their categories.
+     */
+    public void addBooks(@NonNull Collection<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = new ArrayList<>(books.size());
+        List<String> bookIds = new ArrayList<>(books.size());
+        for (Book book : books) {
+            keys.add(categoryKey(book.getCategory().getName()));
+            bookIds.add(String.valueOf(book.getId()));
+        }
+
+        stringRedisTemplate.execute(ADD_SCRIPT, keys, bookIds.toArray());
+    }
+
+    /**
+     * Removes the entry of the updated book and moves it to the set of its new category.
+     */
+    public void moveBook(long bookId, @NonNull String previousCategoryName, @NonNull String categoryName) {
+        stringRedisTemplate.execute(
+                MOVE_SCRIPT,
+                List.of(bookKey(bookId), categoryKey(previousCategoryName), categoryKey(categoryName)),
+                String.valueOf(bookId)
+        );
+    }
+
+    /**
+     * Removes the entry of the deleted book and its ID from the set of its category.
+     */
+    public void removeBook(long bookId, @NonNull String categoryName) {
+        stringRedisTemplate.execute(
+                MOVE_SCRIPT,
+                List.of(bookKey(bookId), categoryKey(categoryName)),
+                String.valueOf(bookId)
+        );
+    }
+
+    /**
+     * Removes the sets of the categories, so they are loaded again on the next read.
+     */
+    public void evictCategories(@NonNull Collection<String> categoryNames) {
+        if (categoryNames.isEmpty()) {
+            return;
+        }
+
+        stringRedisTemplate.delete(categoryNames.stream()
+                .map(CategoryBookCache::categoryKey)
+                .toList());
+    }
+
+    /**
+     * Returns the books with the given IDs that exist, read with a single {@code MGET}. The books missing
+     * from the cache are loaded at once and stored in a single pipeline.
+     *
+     * @param booksLoader loads the books with the given IDs
+     */
+    public Map<Long, BookResponse> getBooks(@NonNull List<Long> bookIds,
+                                            @NonNull Function<List<Long>, List<BookResponse>> booksLoader) {
+        if (bookIds.isEmpty()) {
+            return Map.of();
+        }
+
+        byte[][] keys = bookIds.stream()
+                .map(bookId -> bytes(bookKey(bookId)))
+                .toArray(byte[][]::new);
+        List<byte[]> values = stringRedisTemplate.execute(
+                (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(keys));
+
+        Map<Long, BookResponse> books = new HashMap<>();
+        List<Long> missingBookIds = new ArrayList<>();
+        for (int i = 0; i < bookIds.size(); i++) {
+            byte[] value = values == null ? null : values.get(i);
+            if (value == null) {
+                missingBookIds.add(bookIds.get(i));
+            } else {
+                books.put(bookIds.get(i), (BookResponse) serializer.deserialize(value));
+            }
+        }
+        if (missingBookIds.isEmpty()) {
+            return books;
+        }
+
+        List<BookResponse> loadedBooks = ReplicaRoutingContext.getOnPrimary(() -> booksLoader.apply(missingBookIds));
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (BookResponse book : loadedBooks) {
+                connection.stringCommands().set(
+                        bytes(bookKey(book.getId())),
+                        serializer.serialize(book),
+                        Expiration.from(bookTtlFunction.getTimeToLive(book.getId(), book)),
+                        RedisStringCommands.SetOption.upsert()
+                );
+            }
+
+            return null;
+        });
+        loadedBooks.forEach(book -> books.put(book.getId(), book));
+
+        return books;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> findPageBookIds(String categoryName, long lastId, int limit,
+                                       Supplier<List<Long>> bookIdsLoader) {
+        byte[] categoryKey = bytes(categoryKey(categoryName));
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.keyCommands().exists(categoryKey);
+            connection.zSetCommands().zRangeByScore(categoryKey,
+                    Range.rightUnbounded(Range.Bound.exclusive(lastId)), Limit.limit().count(limit));
+            connection.stringCommands().get(bytes(versionKey(categoryName)));
+
+            return null;
+        });
+        if (Boolean.TRUE.equals(results.get(0))) {
+            return ((Collection<String>) results.get(1)).stream()
+                    .map(Long::valueOf)
+                    .toList();
+        }
+
+        String version = results.get(2) == null ? "" : (String) results.get(2);
+        List<Long> allBookIds = ReplicaRoutingContext.getOnPrimary(bookIdsLoader);
+        storeCategory(categoryName, version, allBookIds);
+
+        return allBookIds.stream()
+                .filter(bookId -> bookId > lastId)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Writes the IDs to a temporary set and renames it to the set of the category if the category version
+     * is still the one read before the IDs were loaded.
+     */
+    private void storeCategory(String categoryName, String version, List<Long> bookIds) {
+        String loadKey = LOAD_KEY_PREFIX + UUID.randomUUID();
+        byte[] loadKeyBytes = bytes(loadKey);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zAdd(loadKeyBytes, 0, bytes(EMPTY_MARKER));
+            for (int from = 0; from < bookIds.size(); from += LOAD_BATCH_SIZE) {
+                Set<Tuple> tuples = new HashSet<>();
+                for (Long bookId : bookIds.subList(from, Math.min(from + LOAD_BATCH_SIZE, bookIds.size()))) {
+                    tuples.add(new DefaultTuple(bytes(String.valueOf(bookId)), bookId.doubleValue()));
+                }
+                connection.zSetCommands().zAdd(loadKeyBytes, tuples);
+            }
+            connection.keyCommands().expire(loadKeyBytes, categoryTtl.toSeconds());
+
+            return null;
+        });
+        stringRedisTemplate.execute(
+                STORE_SCRIPT,
+                List.of(categoryKey(categoryName), loadKey, versionKey(categoryName)),
+                version,
+                String.valueOf(categoryTtl.toSeconds())
+        );
+    }
+
+    private static String categoryKey(String categoryName) {
+        return CATEGORY_KEY_PREFIX + categoryName;
+    }
+
+    private static String versionKey(String categoryName) {
+        return CategoryVersionRegistry.VERSION_KEY_PREFIX + categoryName;
+    }
+
+    private static String bookKey(long bookId) {
+        return BOOK_KEY_PREFIX + bookId;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
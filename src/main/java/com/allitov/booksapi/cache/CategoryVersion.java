@@ -0,0 +1,26 @@
+package com.allitov.booksapi.cache;
+
+import java.time.Instant;
+
+/**
+ * Version of a category and the time of its last change.
+ *
+ * @param version incremented on every write to the category
+ * @param lastModified time of the last write, or {@code null} if no write was recorded
+ */
+public record CategoryVersion(String categoryName, long version, Instant lastModified) {
+
+    /**
+     * Returns an HTTP entity tag that changes whenever the category changes.
+     */
+    public String eTag() {
+        return String.format("\"%08x-%d-%d\"", categoryName.hashCode(), version, lastModifiedMillis());
+    }
+
+    /**
+     * Returns the last modification time in milliseconds, or {@code -1} if unknown.
+     */
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1L : lastModified.toEpochMilli();
+    }
+}
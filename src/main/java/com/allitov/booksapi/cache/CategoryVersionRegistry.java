@@ -0,0 +1,84 @@
+package com.allitov.booksapi.cache;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps a version counter and the last modification time per category in Redis.
+ * <p>
+ * The version is a part of every cached category page key, so incrementing it
+ * invalidates all cached pages of the category at once without scanning the keyspace.
+ * Stale pages are left to expire by their TTL. Together with the last modification time
+ * the version also serves as the HTTP validator of the category responses.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryVersionRegistry {
+
+    public static final String VERSION_KEY_PREFIX = "categoryVersion::";
+
+    private static final String LAST_MODIFIED_KEY_PREFIX = "categoryLastModified::";
+
+    private static final RedisScript<Long> INCREMENT_SCRIPT = RedisScript.of(
+            "redis.call('SET', KEYS[2], ARGV[1]) return redis.call('INCR', KEYS[1])", Long.class);
+
+    private static final RedisScript<Long> INCREMENT_ALL_SCRIPT = RedisScript.of(
+            "for i = 1, #KEYS, 2 do redis.call('SET', KEYS[i + 1], ARGV[1]) redis.call('INCR', KEYS[i]) end "
+                    + "return #KEYS / 2", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Clock clock = Clock.systemUTC();
+
+    public long currentVersion(@NonNull String categoryName) {
+        String version = stringRedisTemplate.opsForValue().get(VERSION_KEY_PREFIX + categoryName);
+
+        return version == null ? 0L : Long.parseLong(version);
+    }
+
+    public CategoryVersion getVersion(@NonNull String categoryName) {
+        List<String> values = stringRedisTemplate.opsForValue().multiGet(
+                List.of(VERSION_KEY_PREFIX + categoryName, LAST_MODIFIED_KEY_PREFIX + categoryName));
+        String version = values == null ? null : values.get(0);
+        String lastModified = values == null ? null : values.get(1);
+
+        return new CategoryVersion(
+                categoryName,
+                version == null ? 0L : Long.parseLong(version),
+                lastModified == null ? null : Instant.ofEpochMilli(Long.parseLong(lastModified))
+        );
+    }
+
+    public void incrementVersion(@NonNull String categoryName) {
+        stringRedisTemplate.execute(
+                INCREMENT_SCRIPT,
+                List.of(VERSION_KEY_PREFIX + categoryName, LAST_MODIFIED_KEY_PREFIX + categoryName),
+                String.valueOf(clock.millis())
+        );
+    }
+
+    /**
+     * Increments the versions of all given categories in a single round trip.
+     */
+    public void incrementVersions(@NonNull Collection<String> categoryNames) {
+        if (categoryNames.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = new ArrayList<>(categoryNames.size() * 2);
+        categoryNames.forEach(categoryName -> {
+            keys.add(VERSION_KEY_PREFIX + categoryName);
+            keys.add(LAST_MODIFIED_KEY_PREFIX + categoryName);
+        });
+        stringRedisTemplate.execute(INCREMENT_ALL_SCRIPT, keys, String.valueOf(clock.millis()));
+    }
+}
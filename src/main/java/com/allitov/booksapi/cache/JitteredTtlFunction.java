@@ -0,0 +1,38 @@
+package com.allitov.booksapi.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time to live of a base duration plus a random jitter, so entries written at the same time
+ * do not expire at the same time. Cached {@code null} values, which record that nothing was found,
+ * get a separate short time to live.
+ */
+public class JitteredTtlFunction implements RedisCacheWriter.TtlFunction {
+
+    private final Duration ttl;
+
+    private final long jitterMillis;
+
+    private final Duration nullValueTtl;
+
+    public JitteredTtlFunction(Duration ttl, Duration jitter, Duration nullValueTtl) {
+        this.ttl = ttl;
+        this.jitterMillis = jitter.toMillis();
+        this.nullValueTtl = nullValueTtl;
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        if (value == null) {
+            return nullValueTtl;
+        }
+        if (jitterMillis <= 0) {
+            return ttl;
+        }
+
+        return ttl.plusMillis(ThreadLocalRandom.current().nextLong(jitterMillis + 1));
+    }
+}
@@ -0,0 +1,59 @@
+package com.allitov.booksapi.cache;
+
+import com.allitov.booksapi.configuration.AppCacheProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Non-blocking access to the Redis caches of the blocking API.
+ * <p>
+ * Keys and values are read and written in the same format as {@link StampedeProtectedRedisCache} does it,
+ * so both APIs share the cached books and the category versions. Missing values are stored as {@link NullValue}
+ * in the codec of the cache. Loads are not protected from stampedes.
+ */
+@RequiredArgsConstructor
+public class ReactiveCacheClient {
+
+    private final ReactiveRedisTemplate<String, byte[]> reactiveRedisTemplate;
+
+    private final AppCacheProperties cacheProperties;
+
+    /**
+     * Returns the cached value, which is {@code null} if a missing value was cached,
+     * or an empty {@link Mono} if nothing is cached.
+     */
+    public Mono<Cache.ValueWrapper> get(String cacheName, String key) {
+        return reactiveRedisTemplate.opsForValue().get(cacheKey(cacheName, key))
+                .map(value -> cacheProperties.codecOf(cacheName).serializer().deserialize(value))
+                .map(value -> new SimpleValueWrapper(value instanceof NullValue ? null : value));
+    }
+
+    public Mono<Boolean> put(String cacheName, String key, Object value) {
+        JitteredTtlFunction ttlFunction = new JitteredTtlFunction(
+                cacheProperties.ttlOf(cacheName),
+                cacheProperties.ttlJitterOf(cacheName),
+                cacheProperties.getNullValueTtl()
+        );
+        byte[] serializedValue = cacheProperties.codecOf(cacheName).serializer()
+                .serialize(value == null ? NullValue.INSTANCE : value);
+
+        return reactiveRedisTemplate.opsForValue().set(
+                cacheKey(cacheName, key), serializedValue, ttlFunction.getTimeToLive(key, value));
+    }
+
+    public Mono<Long> currentVersion(String categoryName) {
+        return reactiveRedisTemplate.opsForValue().get(CategoryVersionRegistry.VERSION_KEY_PREFIX + categoryName)
+                .map(version -> Long.parseLong(new String(version, StandardCharsets.UTF_8)))
+                .defaultIfEmpty(0L);
+    }
+
+    private static String cacheKey(String cacheName, String key) {
+        return cacheName + "::" + key;
+    }
+}
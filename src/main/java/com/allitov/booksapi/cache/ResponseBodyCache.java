@@ -0,0 +1,130 @@
+package com.allitov.booksapi.cache;
+
+import com.allitov.booksapi.configuration.AppCacheProperties;
+import lombok.NonNull;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cache of rendered JSON response bodies, so a hit is written to the response as is without
+ * deserializing, mapping and serializing the books again.
+ * <p>
+ * Every body is stored with the version of the category it was rendered from and is only used while
+ * that version is current. The version is incremented after every write to the category, the same
+ * writes that evict the cached books, so a body is never served after its books changed. Bodies
+ * stored without a category are only limited by their TTL.
+ */
+@Component
+public class ResponseBodyCache {
+
+    public static final String BOOK_BY_NAME_AND_AUTHOR = "bookByNameAndAuthorBody";
+
+    public static final String BOOKS_BY_CATEGORY_NAME = "booksByCategoryNameBody";
+
+    public static final String BOOK_SEARCH = "bookSearchBody";
+
+    private static final long OUTDATED_VERSION = -1L;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Map<String, JitteredTtlFunction> ttlFunctions;
+
+    public ResponseBodyCache(StringRedisTemplate stringRedisTemplate, AppCacheProperties cacheProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.ttlFunctions = Stream.of(BOOK_BY_NAME_AND_AUTHOR, BOOKS_BY_CATEGORY_NAME, BOOK_SEARCH)
+                .collect(Collectors.toMap(Function.identity(), cacheName -> new JitteredTtlFunction(
+                        cacheProperties.ttlOf(cacheName),
+                        cacheProperties.ttlJitterOf(cacheName),
+                        cacheProperties.getNullValueTtl()
+                )));
+    }
+
+    /**
+     * Returns the cached body, or {@code null} if there is none.
+     */
+    public CachedResponseBody get(@NonNull String cacheName, @NonNull String key) {
+        byte[] cacheKey = cacheKey(cacheName, key);
+        byte[] value = stringRedisTemplate.execute(
+                (RedisCallback<byte[]>) connection -> connection.stringCommands().get(cacheKey));
+
+        return value == null ? null : CachedResponseBody.fromBytes(value);
+    }
+
+    /**
+     * Caches the body rendered from the given version of a category, or from no category if it is {@code null}.
+     */
+    public void put(@NonNull String cacheName, @NonNull String key, CategoryVersion categoryVersion,
+                    @NonNull byte[] body) {
+        CachedResponseBody cachedBody = categoryVersion == null
+                ? new CachedResponseBody("", 0L, body)
+                : new CachedResponseBody(categoryVersion.categoryName(), categoryVersion.version(), body);
+        byte[] cacheKey = cacheKey(cacheName, key);
+        Expiration expiration = Expiration.from(ttlFunctions.get(cacheName).getTimeToLive(key, body));
+
+        stringRedisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands().set(
+                cacheKey, cachedBody.toBytes(), expiration, RedisStringCommands.SetOption.upsert()));
+    }
+
+    /**
+     * Caches a body rendered from an unknown version of a category. The body is never current and only records
+     * its category, so the next read can take the version of the category before loading the books again.
+     */
+    public void putOutdated(@NonNull String cacheName, @NonNull String key, @NonNull String categoryName,
+                            @NonNull byte[] body) {
+        put(cacheName, key, new CategoryVersion(categoryName, OUTDATED_VERSION, null), body);
+    }
+
+    private static byte[] cacheKey(String cacheName, String key) {
+        return (cacheName + "::" + key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rendered body and the version of the category it was rendered from.
+     *
+     * @param categoryName name of the category, or an empty string if the body does not depend on one
+     */
+    public record CachedResponseBody(String categoryName, long categoryVersion, byte[] body) {
+
+        /**
+         * Returns {@code true} if the body was rendered from the given version of its category.
+         */
+        public boolean isCurrent(@NonNull CategoryVersion version) {
+            return categoryName.equals(version.categoryName()) && categoryVersion == version.version();
+        }
+
+        private byte[] toBytes() {
+            byte[] name = categoryName.getBytes(StandardCharsets.UTF_8);
+
+            return ByteBuffer.allocate(Long.BYTES + Integer.BYTES + name.length + body.length)
+                    .putLong(categoryVersion)
+                    .putInt(name.length)
+                    .put(name)
+                    .put(body)
+                    .array();
+        }
+
+        private static CachedResponseBody fromBytes(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long categoryVersion = buffer.getLong();
+            byte[] name = new byte[buffer.getInt()];
+            buffer.get(name);
+
+            return new CachedResponseBody(
+                    new String(name, StandardCharsets.UTF_8),
+                    categoryVersion,
+                    Arrays.copyOfRange(bytes, buffer.position(), bytes.length)
+            );
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.allitov.booksapi.cache;
+
+import com.allitov.booksapi.datasource.ReplicaRoutingContext;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Redis cache that protects the loader of a missing or expiring entry from concurrent calls.
+ * <p>
+ * A value is loaded by a single thread per key on each node, the other callers wait for its result.
+ * With the distributed lock enabled a missing value is also loaded by a single node, the other
+ * nodes wait for it to appear in Redis. Entries loaded by this node are reloaded before they expire
+ * with the probabilistic early expiration: the closer the expiration and the longer the load took,
+ * the more likely a hit reloads the entry, so a hot entry is reloaded by one caller before it expires.
+ * Values are loaded from the primary database, never from a read replica that may lag behind it.
+ */
+@Slf4j
+public class StampedeProtectedRedisCache extends RedisCache {
+
+    private static final String LOCK_KEY_PREFIX = "lock::";
+
+    private static final long LOCK_POLL_INTERVAL_MILLIS = 25;
+
+    private static final RedisScript<Long> UNLOCK_SCRIPT = RedisScript.of(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    private final com.github.benmanes.caffeine.cache.Cache<String, LoadStats> loadStats;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final StampedeProtection protection;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    protected StampedeProtectedRedisCache(String name, RedisCacheWriter cacheWriter,
+                                          RedisCacheConfiguration cacheConfiguration,
+                                          StringRedisTemplate stringRedisTemplate,
+                                          StampedeProtection protection) {
+        super(name, cacheWriter, cacheConfiguration);
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.protection = protection;
+        this.loadStats = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(protection.minimumTtl())
+                .build();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = createCacheKey(key);
+        ValueWrapper cachedValue = get(key);
+        if (cachedValue != null && !shouldRefreshEarly(cacheKey)) {
+            return (T) cachedValue.get();
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> runningLoad = loads.putIfAbsent(cacheKey, load);
+        if (runningLoad != null) {
+            return cachedValue != null ? (T) cachedValue.get() : (T) await(runningLoad);
+        }
+
+        try {
+            Object value = cachedValue != null
+                    ? refreshValue(key, cacheKey, valueLoader, cachedValue)
+                    : loadMissingValue(key, cacheKey, valueLoader);
+            load.complete(value);
+
+            return (T) value;
+        } catch (Throwable e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(cacheKey, load);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        loadStats.invalidate(createCacheKey(key));
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        loadStats.invalidateAll();
+    }
+
+    private boolean shouldRefreshEarly(String cacheKey) {
+        if (!protection.earlyRefresh()) {
+            return false;
+        }
+
+        LoadStats stats = loadStats.getIfPresent(cacheKey);
+        if (stats == null) {
+            return false;
+        }
+
+        double earlyMillis = -stats.loadMillis() * protection.earlyRefreshBeta()
+                * Math.log(ThreadLocalRandom.current().nextDouble(Double.MIN_VALUE, 1.0));
+
+        return System.currentTimeMillis() + earlyMillis >= stats.expiresAtMillis();
+    }
+
+    private Object refreshValue(Object key, String cacheKey, Callable<?> valueLoader, ValueWrapper cachedValue) {
+        if (!protection.distributedLock()) {
+            return loadValue(key, cacheKey, valueLoader);
+        }
+        if (!tryLock(cacheKey)) {
+            return cachedValue.get();
+        }
+
+        try {
+            return loadValue(key, cacheKey, valueLoader);
+        } finally {
+            unlock(cacheKey);
+        }
+    }
+
+    private Object loadMissingValue(Object key, String cacheKey, Callable<?> valueLoader) {
+        if (!protection.distributedLock()) {
+            return loadValue(key, cacheKey, valueLoader);
+        }
+
+        long deadline = System.nanoTime() + protection.lockWaitTimeout().toNanos();
+        while (!tryLock(cacheKey)) {
+            ValueWrapper loadedValue = get(key);
+            if (loadedValue != null) {
+                return loadedValue.get();
+            }
+            if (System.nanoTime() >= deadline) {
+                log.debug("Timed out waiting for cache entry '{}' to be loaded by another node", cacheKey);
+                return loadValue(key, cacheKey, valueLoader);
+            }
+            sleep();
+        }
+
+        try {
+            ValueWrapper loadedValue = get(key);
+            if (loadedValue != null) {
+                return loadedValue.get();
+            }
+
+            return loadValue(key, cacheKey, valueLoader);
+        } finally {
+            unlock(cacheKey);
+        }
+    }
+
+    private Object loadValue(Object key, String cacheKey, Callable<?> valueLoader) {
+        long startMillis = System.currentTimeMillis();
+        Object value;
+        try {
+            value = ReplicaRoutingContext.callOnPrimary(valueLoader);
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+
+        long loadedAtMillis = System.currentTimeMillis();
+        Duration minimumTtl = value == null ? protection.nullValueTtl() : protection.minimumTtl();
+        loadStats.put(cacheKey, new LoadStats(
+                Math.max(1, loadedAtMillis - startMillis), loadedAtMillis + minimumTtl.toMillis()));
+
+        return value;
+    }
+
+    private boolean tryLock(String cacheKey) {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+                .setIfAbsent(LOCK_KEY_PREFIX + cacheKey, nodeId, protection.lockTimeout()));
+    }
+
+    private void unlock(String cacheKey) {
+        stringRedisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_KEY_PREFIX + cacheKey), nodeId);
+    }
+
+    private static Object await(CompletableFuture<Object> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(Duration.ofMillis(LOCK_POLL_INTERVAL_MILLIS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a cache entry", e);
+        }
+    }
+
+    private record LoadStats(long loadMillis, long expiresAtMillis) {
+    }
+}
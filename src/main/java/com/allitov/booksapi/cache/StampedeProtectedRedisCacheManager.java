@@ -0,0 +1,47 @@
+package com.allitov.booksapi.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Map;
+
+/**
+ * Redis cache manager that creates {@link StampedeProtectedRedisCache} caches.
+ * <p>
+ * Like the cache configurations, the stampede protection settings can be given per cache name;
+ * caches without their own settings use the default ones.
+ */
+public class StampedeProtectedRedisCacheManager extends RedisCacheManager {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final StampedeProtection defaultProtection;
+
+    private final Map<String, StampedeProtection> initialProtections;
+
+    public StampedeProtectedRedisCacheManager(RedisCacheWriter cacheWriter,
+                                              RedisCacheConfiguration defaultCacheConfiguration,
+                                              Map<String, RedisCacheConfiguration> initialCacheConfigurations,
+                                              StringRedisTemplate stringRedisTemplate,
+                                              StampedeProtection defaultProtection,
+                                              Map<String, StampedeProtection> initialProtections) {
+        super(cacheWriter, defaultCacheConfiguration, true, initialCacheConfigurations);
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.defaultProtection = defaultProtection;
+        this.initialProtections = initialProtections;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+        return new StampedeProtectedRedisCache(
+                name,
+                getCacheWriter(),
+                cacheConfiguration,
+                stringRedisTemplate,
+                initialProtections.getOrDefault(name, defaultProtection)
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package com.allitov.booksapi.cache;
+
+import java.time.Duration;
+
+/**
+ * Settings of the cache stampede protection.
+ *
+ * @param earlyRefresh whether entries are reloaded before they expire
+ * @param earlyRefreshBeta how eagerly entries are reloaded, {@code 1.0} is the usual value
+ * @param minimumTtl the shortest time to live of an entry of the cache, used to estimate when it expires
+ * @param nullValueTtl the time to live of a cached {@code null} value
+ * @param distributedLock whether a cache miss is loaded by a single node only
+ * @param lockTimeout how long the distributed lock is held at most
+ * @param lockWaitTimeout how long other nodes wait for the value before loading it themselves
+ */
+public record StampedeProtection(boolean earlyRefresh, double earlyRefreshBeta,
+                                 Duration minimumTtl, Duration nullValueTtl,
+                                 boolean distributedLock, Duration lockTimeout, Duration lockWaitTimeout) {
+}
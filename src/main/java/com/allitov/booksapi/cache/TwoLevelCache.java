@@ -0,0 +1,142 @@
+package com.allitov.booksapi.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache that keeps a bounded in-process copy of the entries of a shared remote cache.
+ * <p>
+ * Reads are served from the local level first. Every local change is written through to the
+ * remote level and broadcast, so other nodes drop their local copies of the changed entry.
+ * Locally cached values are shared between callers and must not be modified.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache;
+
+    private final Cache remoteCache;
+
+    private final TwoLevelCacheManager cacheManager;
+
+    TwoLevelCache(com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache,
+                  Cache remoteCache, TwoLevelCacheManager cacheManager) {
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return remoteCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = toLocalKey(key);
+        ValueWrapper localValue = localCache.getIfPresent(localKey);
+        if (localValue != null) {
+            return localValue;
+        }
+
+        ValueWrapper remoteValue = remoteCache.get(key);
+        if (remoteValue != null) {
+            localCache.put(localKey, remoteValue);
+        }
+
+        return remoteValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+        if (value.get() != null && type != null && !type.isInstance(value.get())) {
+            throw new IllegalStateException(
+                    String.format("Cached value is not of required type [%s]: %s", type.getName(), value.get()));
+        }
+
+        return (T) value.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = toLocalKey(key);
+        ValueWrapper localValue = localCache.getIfPresent(localKey);
+        if (localValue != null) {
+            return (T) localValue.get();
+        }
+
+        T value = remoteCache.get(key, valueLoader);
+        localCache.put(localKey, new SimpleValueWrapper(value));
+
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        localCache.put(toLocalKey(key), new SimpleValueWrapper(value));
+        cacheManager.publishInvalidation(getName(), toLocalKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existingValue = remoteCache.putIfAbsent(key, value);
+        if (existingValue == null) {
+            localCache.put(toLocalKey(key), new SimpleValueWrapper(value));
+            cacheManager.publishInvalidation(getName(), toLocalKey(key));
+        }
+
+        return existingValue;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        evictLocal(toLocalKey(key));
+        cacheManager.publishInvalidation(getName(), toLocalKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remoteCache.evictIfPresent(key);
+        evictLocal(toLocalKey(key));
+        cacheManager.publishInvalidation(getName(), toLocalKey(key));
+
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        clearLocal();
+        cacheManager.publishInvalidation(getName(), null);
+    }
+
+    com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> getLocalCache() {
+        return localCache;
+    }
+
+    void evictLocal(String key) {
+        localCache.invalidate(key);
+    }
+
+    void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    private String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+}
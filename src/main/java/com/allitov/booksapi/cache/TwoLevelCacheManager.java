@@ -0,0 +1,151 @@
+package com.allitov.booksapi.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache manager that puts a size- and TTL-bounded Caffeine cache in front of every cache
+ * of the delegate manager.
+ * <p>
+ * Local entries of {@code null} values expire after the shorter of the local TTL and the TTL
+ * of {@code null} values, so a cached miss is not kept locally longer than in Redis.
+ * <p>
+ * Changes of local entries are published to the {@link #INVALIDATION_CHANNEL} Redis channel.
+ * The manager listens to the same channel and drops local entries changed by other nodes.
+ */
+@Slf4j
+@RegisterReflectionForBinding(CacheInvalidationMessage.class)
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "cacheInvalidation";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    private final CacheManager remoteCacheManager;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final long maximumSize;
+
+    private final Duration expireAfterWrite;
+
+    private final Duration nullValueExpireAfterWrite;
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, StringRedisTemplate stringRedisTemplate,
+                                ObjectMapper objectMapper, long maximumSize, Duration expireAfterWrite,
+                                Duration nullValueTtl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.maximumSize = maximumSize;
+        this.expireAfterWrite = expireAfterWrite;
+        this.nullValueExpireAfterWrite = nullValueTtl.compareTo(expireAfterWrite) < 0
+                ? nullValueTtl
+                : expireAfterWrite;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+
+        return caches.computeIfAbsent(name, cacheName -> new TwoLevelCache(
+                Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfter(new LocalEntryExpiry())
+                        .recordStats()
+                        .build(),
+                remoteCache,
+                this
+        ));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("Skipping malformed cache invalidation message: {}",
+                    new String(message.getBody(), StandardCharsets.UTF_8));
+            return;
+        }
+
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+
+        TwoLevelCache cache = caches.get(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+
+        if (invalidation.key() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+
+    void publishInvalidation(String cacheName, String key) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    objectMapper.writeValueAsString(new CacheInvalidationMessage(nodeId, cacheName, key)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private class LocalEntryExpiry implements Expiry<String, Cache.ValueWrapper> {
+
+        @Override
+        public long expireAfterCreate(String key, Cache.ValueWrapper value, long currentTime) {
+            return (value.get() == null ? nullValueExpireAfterWrite : expireAfterWrite).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Cache.ValueWrapper value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Cache.ValueWrapper value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.allitov.booksapi.cache;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+
+/**
+ * Binds the hit, miss and eviction counters of the local level of a {@link TwoLevelCache}.
+ * <p>
+ * The remote level is bound separately through the Redis cache manager, so both levels
+ * are reported under the same cache name with a different {@code cache.manager} tag.
+ */
+public class TwoLevelCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoLevelCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        return new CaffeineCacheMetrics<>(cache.getLocalCache(), cache.getName(), tags);
+    }
+}
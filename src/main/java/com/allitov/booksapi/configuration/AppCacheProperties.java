@@ -0,0 +1,95 @@
+package com.allitov.booksapi.configuration;
+
+import com.allitov.booksapi.cache.CacheCodec;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class AppCacheProperties {
+
+    private List<String> names = new ArrayList<>();
+
+    private CacheCodec defaultCodec = CacheCodec.JDK;
+
+    private Map<String, CacheCodec> codecs = new HashMap<>();
+
+    private Duration ttl = Duration.ofSeconds(200);
+
+    private Map<String, Duration> ttls = new HashMap<>();
+
+    private Duration ttlJitter = Duration.ofSeconds(20);
+
+    private Duration nullValueTtl = Duration.ofSeconds(10);
+
+    private Duration secondInvalidationDelay = Duration.ZERO;
+
+    private Local local = new Local();
+
+    private EarlyRefresh earlyRefresh = new EarlyRefresh();
+
+    private DistributedLock distributedLock = new DistributedLock();
+
+    private BookFilter bookFilter = new BookFilter();
+
+    public CacheCodec codecOf(String cacheName) {
+        return codecs.getOrDefault(cacheName, defaultCodec);
+    }
+
+    public Duration ttlOf(String cacheName) {
+        return ttls.getOrDefault(cacheName, ttl);
+    }
+
+    /**
+     * Returns the TTL jitter of the cache, at most a tenth of its TTL.
+     */
+    public Duration ttlJitterOf(String cacheName) {
+        Duration maximumJitter = ttlOf(cacheName).dividedBy(10);
+
+        return ttlJitter.compareTo(maximumJitter) > 0 ? maximumJitter : ttlJitter;
+    }
+
+    @Data
+    public static class Local {
+
+        private boolean enable = false;
+
+        private long maximumSize = 10_000;
+
+        private Duration expireAfterWrite = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class EarlyRefresh {
+
+        private boolean enable = true;
+
+        private double beta = 1.0;
+    }
+
+    @Data
+    public static class DistributedLock {
+
+        private boolean enable = false;
+
+        private Duration lockTimeout = Duration.ofSeconds(10);
+
+        private Duration waitTimeout = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class BookFilter {
+
+        private long expectedInsertions = 1_000_000;
+
+        private double falsePositiveProbability = 0.01;
+
+        private boolean rebuildWhenMissing = true;
+    }
+}
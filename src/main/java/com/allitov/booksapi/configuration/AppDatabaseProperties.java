@@ -0,0 +1,33 @@
+package com.allitov.booksapi.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.database")
+public class AppDatabaseProperties {
+
+    private boolean verifyIndexes = true;
+
+    private ReadReplicas readReplicas = new ReadReplicas();
+
+    @Data
+    public static class ReadReplicas {
+
+        private boolean enable = false;
+
+        private List<String> urls = new ArrayList<>();
+
+        private int maximumPoolSize = 10;
+
+        private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+        private Duration maximumLag = Duration.ofSeconds(5);
+
+        private Duration readYourWritesWindow = Duration.ZERO;
+    }
+}
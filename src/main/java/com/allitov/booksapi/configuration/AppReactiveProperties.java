@@ -0,0 +1,29 @@
+package com.allitov.booksapi.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.reactive")
+public class AppReactiveProperties {
+
+    private boolean enable = false;
+
+    private int port = 8081;
+
+    private R2dbc r2dbc = new R2dbc();
+
+    @Data
+    public static class R2dbc {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+
+        private int fetchSize = 100;
+    }
+}
@@ -0,0 +1,50 @@
+package com.allitov.booksapi.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.web")
+public class AppWebProperties {
+
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    private CacheControlProperties cacheControl = new CacheControlProperties();
+
+    private Duration exportTimeout = Duration.ofMinutes(30);
+
+    @Data
+    public static class ConcurrencyLimit {
+
+        private boolean enable = false;
+
+        private int requestsPerConnection = 2;
+
+        private Duration acquireTimeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class CacheControlProperties {
+
+        private Duration maxAge = Duration.ZERO;
+
+        private boolean cachePublic = false;
+
+        /**
+         * Returns {@code no-cache} for a zero max age, so clients always revalidate with the ETag,
+         * and {@code max-age} otherwise.
+         */
+        public CacheControl toCacheControl() {
+            if (maxAge.isZero()) {
+                return CacheControl.noCache();
+            }
+
+            CacheControl cacheControl = CacheControl.maxAge(maxAge);
+
+            return cachePublic ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.allitov.booksapi.configuration;
+
+import com.allitov.booksapi.cache.ReactiveCacheClient;
+import com.allitov.booksapi.model.repository.ReactiveBookRepository;
+import com.allitov.booksapi.web.mapper.BookMapper;
+import com.allitov.booksapi.web.reactive.ReactiveApiServer;
+import com.allitov.booksapi.web.reactive.ReactiveBookHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+
+@Configuration
+@EnableConfigurationProperties({AppReactiveProperties.class, AppCacheProperties.class})
+@ConditionalOnProperty(prefix = "app.reactive", name = "enable", havingValue = "true")
+public class ReactiveApiConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool reactiveConnectionPool(AppReactiveProperties reactiveProperties) {
+        AppReactiveProperties.R2dbc r2dbc = reactiveProperties.getR2dbc();
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(r2dbc.getUrl()).mutate()
+                .option(ConnectionFactoryOptions.USER, r2dbc.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, r2dbc.getPassword())
+                .build();
+
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(r2dbc.getMaximumPoolSize())
+                .build());
+    }
+
+    @Bean
+    public ReactiveBookRepository reactiveBookRepository(ConnectionPool reactiveConnectionPool,
+                                                         AppReactiveProperties reactiveProperties) {
+        return new ReactiveBookRepository(
+                DatabaseClient.create(reactiveConnectionPool),
+                reactiveProperties.getR2dbc().getFetchSize()
+        );
+    }
+
+    @Bean
+    public ReactiveCacheClient reactiveCacheClient(ReactiveRedisConnectionFactory reactiveRedisConnectionFactory,
+                                                   AppCacheProperties cacheProperties) {
+        RedisSerializationContext<String, byte[]> serializationContext = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(RedisSerializer.string())
+                .value(RedisSerializer.byteArray())
+                .build();
+
+        return new ReactiveCacheClient(
+                new ReactiveRedisTemplate<>(reactiveRedisConnectionFactory, serializationContext),
+                cacheProperties
+        );
+    }
+
+    @Bean
+    public ReactiveBookHandler reactiveBookHandler(ReactiveBookRepository reactiveBookRepository,
+                                                   ReactiveCacheClient reactiveCacheClient,
+                                                   BookMapper bookMapper) {
+        return new ReactiveBookHandler(reactiveBookRepository, reactiveCacheClient, bookMapper);
+    }
+
+    @Bean
+    public ReactiveApiServer reactiveApiServer(ReactiveBookHandler reactiveBookHandler,
+                                               ObjectMapper objectMapper,
+                                               ObservationRegistry observationRegistry,
+                                               AppReactiveProperties reactiveProperties) {
+        return new ReactiveApiServer(
+                httpHandler(reactiveBookHandler, objectMapper, observationRegistry),
+                reactiveProperties.getPort()
+        );
+    }
+
+    private HttpHandler httpHandler(ReactiveBookHandler reactiveBookHandler,
+                                    ObjectMapper objectMapper,
+                                    ObservationRegistry observationRegistry) {
+        RouterFunction<ServerResponse> router = RouterFunctions.route()
+                .GET("/api/v2/book", reactiveBookHandler::getBookByNameAndAuthor)
+                .GET("/api/v2/book/category", reactiveBookHandler::getBooksByCategoryName)
+                .build();
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+
+        return WebHttpHandlerBuilder.webHandler(RouterFunctions.toWebHandler(router, strategies))
+                .filters(filters -> filters.addAll(strategies.webFilters()))
+                .exceptionHandlers(handlers -> handlers.addAll(strategies.exceptionHandlers()))
+                .observationRegistry(observationRegistry)
+                .build();
+    }
+}
@@ -1,31 +1,54 @@
 package com.allitov.booksapi.configuration;
 
+import com.allitov.booksapi.cache.JitteredTtlFunction;
+import com.allitov.booksapi.cache.StampedeProtectedRedisCacheManager;
+import com.allitov.booksapi.cache.StampedeProtection;
+import com.allitov.booksapi.cache.TwoLevelCacheManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.resource.ClientResources;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 @Configuration
-@EnableCaching
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@EnableConfigurationProperties(AppCacheProperties.class)
 @ConditionalOnProperty(prefix = "app.redis", name = "enable", havingValue = "true")
 public class RedisConfiguration {
 
     @Bean
-    public LettuceConnectionFactory lettuceConnectionFactory(RedisProperties redisProperties) {
+    public LettuceConnectionFactory lettuceConnectionFactory(RedisProperties redisProperties,
+                                                             ClientResources clientResources) {
         RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration();
         configuration.setHostName(redisProperties.getHost());
         configuration.setPort(redisProperties.getPort());
 
-        return new LettuceConnectionFactory(configuration);
+        return new LettuceConnectionFactory(configuration, LettuceClientConfiguration.builder()
+                .clientResources(clientResources)
+                .build());
     }
 
     @Bean
@@ -38,12 +61,80 @@ public class RedisConfiguration {
     }
 
     @Bean
-    public RedisCacheManager redisCacheManager(LettuceConnectionFactory lettuceConnectionFactory) {
-        RedisCacheConfiguration cacheConfiguration =
-                RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofSeconds(200));
+    public RedisCacheManager redisCacheManager(LettuceConnectionFactory lettuceConnectionFactory,
+                                               StringRedisTemplate stringRedisTemplate,
+                                               AppCacheProperties cacheProperties) {
+        RedisCacheConfiguration defaultCacheConfiguration = cacheConfiguration(cacheProperties, null);
 
-        return RedisCacheManager.builder(lettuceConnectionFactory)
-                .cacheDefaults(cacheConfiguration)
-                .build();
+        Set<String> cacheNames = new HashSet<>(cacheProperties.getNames());
+        cacheNames.addAll(cacheProperties.getCodecs().keySet());
+        cacheNames.addAll(cacheProperties.getTtls().keySet());
+        Map<String, RedisCacheConfiguration> initialCacheConfigurations = new HashMap<>();
+        Map<String, StampedeProtection> initialProtections = new HashMap<>();
+        cacheNames.forEach(cacheName -> {
+            initialCacheConfigurations.put(cacheName, cacheConfiguration(cacheProperties, cacheName));
+            initialProtections.put(cacheName, stampedeProtection(cacheProperties, cacheName));
+        });
+
+        return new StampedeProtectedRedisCacheManager(
+                RedisCacheWriter.nonLockingRedisCacheWriter(lettuceConnectionFactory)
+                        .withStatisticsCollector(CacheStatisticsCollector.create()),
+                defaultCacheConfiguration,
+                initialCacheConfigurations,
+                stringRedisTemplate,
+                stampedeProtection(cacheProperties, null),
+                initialProtections
+        );
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "app.cache.local", name = "enable", havingValue = "true")
+    public TwoLevelCacheManager twoLevelCacheManager(RedisCacheManager redisCacheManager,
+                                                     StringRedisTemplate stringRedisTemplate,
+                                                     ObjectMapper objectMapper,
+                                                     AppCacheProperties cacheProperties) {
+        return new TwoLevelCacheManager(
+                redisCacheManager,
+                stringRedisTemplate,
+                objectMapper,
+                cacheProperties.getLocal().getMaximumSize(),
+                cacheProperties.getLocal().getExpireAfterWrite(),
+                cacheProperties.getNullValueTtl()
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.local", name = "enable", havingValue = "true")
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            LettuceConnectionFactory lettuceConnectionFactory, TwoLevelCacheManager twoLevelCacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(lettuceConnectionFactory);
+        container.addMessageListener(twoLevelCacheManager,
+                new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+
+        return container;
+    }
+
+    private RedisCacheConfiguration cacheConfiguration(AppCacheProperties cacheProperties, String cacheName) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(new JitteredTtlFunction(
+                        cacheProperties.ttlOf(cacheName),
+                        cacheProperties.ttlJitterOf(cacheName),
+                        cacheProperties.getNullValueTtl()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        cacheProperties.codecOf(cacheName).serializer()));
+    }
+
+    private StampedeProtection stampedeProtection(AppCacheProperties cacheProperties, String cacheName) {
+        return new StampedeProtection(
+                cacheProperties.getEarlyRefresh().isEnable(),
+                cacheProperties.getEarlyRefresh().getBeta(),
+                cacheProperties.ttlOf(cacheName),
+                cacheProperties.getNullValueTtl(),
+                cacheProperties.getDistributedLock().isEnable(),
+                cacheProperties.getDistributedLock().getLockTimeout(),
+                cacheProperties.getDistributedLock().getWaitTimeout()
+        );
     }
 }
@@ -0,0 +1,60 @@
+package com.allitov.booksapi.configuration;
+
+import com.allitov.booksapi.web.converter.JacksonProtobufHttpMessageConverter;
+import com.allitov.booksapi.web.converter.ResponseBodyEncoder;
+import com.allitov.booksapi.web.filter.ConcurrencyLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(AppWebProperties.class)
+@RequiredArgsConstructor
+public class WebConfiguration implements WebMvcConfigurer {
+
+    private final ResponseBodyEncoder responseBodyEncoder;
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.web.concurrency-limit", name = "enable", havingValue = "true")
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size}") int connectionPoolSize,
+            AppWebProperties webProperties,
+            ObjectMapper objectMapper) {
+        AppWebProperties.ConcurrencyLimit concurrencyLimit = webProperties.getConcurrencyLimit();
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(
+                        connectionPoolSize * concurrencyLimit.getRequestsPerConnection(),
+                        concurrencyLimit.getAcquireTimeout(),
+                        objectMapper
+                ));
+        registration.addUrlPatterns("/api/*");
+
+        return registration;
+    }
+
+    /**
+     * Adds the protobuf converter right after the JSON converter. A converter bean would be put before
+     * the default converters and make protobuf the format of requests that accept any type.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        int jsonConverterIndex = 0;
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                jsonConverterIndex = i;
+                break;
+            }
+        }
+        converters.add(jsonConverterIndex + 1, new JacksonProtobufHttpMessageConverter(responseBodyEncoder));
+    }
+}
@@ -0,0 +1,52 @@
+package com.allitov.booksapi.datasource;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread as one whose read-only transactions must use the primary database,
+ * for example because its client has just written and the replicas may not have the write yet.
+ */
+@UtilityClass
+public class ReplicaRoutingContext {
+
+    private final ThreadLocal<Boolean> PRIMARY_REQUIRED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    public void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get();
+    }
+
+    public void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    /**
+     * Runs the reads on the primary and then restores the previous mode of the thread.
+     * Reads whose results are cached must not come from a replica, which may not have the latest writes yet.
+     */
+    public <T> T callOnPrimary(Callable<T> reads) throws Exception {
+        boolean primaryRequired = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return reads.call();
+        } finally {
+            PRIMARY_REQUIRED.set(primaryRequired);
+        }
+    }
+
+    public <T> T getOnPrimary(Supplier<T> reads) {
+        boolean primaryRequired = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            PRIMARY_REQUIRED.set(primaryRequired);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.allitov.booksapi.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to the healthy read replicas in turn and everything else to the primary.
+ * <p>
+ * The read-only flag of a transaction is known only after the transaction has begun, so this data source
+ * must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which
+ * fetches the connection on the first statement. A replica is taken out of rotation if it cannot be reached
+ * or lags behind the primary by more than the maximum lag, and read-only transactions fall back
+ * to the primary while no replica is healthy.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY_KEY = "primary";
+
+    private static final String REPLICATION_LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private final Map<String, DataSource> replicas;
+
+    private final Duration maximumLag;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private volatile List<String> healthyReplicaKeys;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maximumLag) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maximumLag = maximumLag;
+        this.healthyReplicaKeys = List.copyOf(replicas.keySet());
+
+        Map<Object, Object> targetDataSources = new HashMap<>(replicas);
+        targetDataSources.put(PRIMARY_KEY, primary);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReplicaRoutingContext.isPrimaryRequired()) {
+            return PRIMARY_KEY;
+        }
+
+        List<String> healthyKeys = healthyReplicaKeys;
+        if (healthyKeys.isEmpty()) {
+            return PRIMARY_KEY;
+        }
+
+        return healthyKeys.get(Math.floorMod(nextReplica.getAndIncrement(), healthyKeys.size()));
+    }
+
+    /**
+     * Returns a connection to the chosen database, or to the primary if the chosen replica cannot be reached.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        try {
+            return getResolvedDataSources().get(key).getConnection();
+        } catch (SQLException e) {
+            if (PRIMARY_KEY.equals(key)) {
+                throw e;
+            }
+
+            markUnhealthy((String) key, e);
+
+            return getResolvedDefaultDataSource().getConnection();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.database.read-replicas.health-check-interval}")
+    public void checkReplicas() {
+        List<String> healthyKeys = new ArrayList<>();
+        replicas.forEach((key, replica) -> {
+            if (isHealthy(key, replica)) {
+                healthyKeys.add(key);
+            }
+        });
+
+        if (!healthyKeys.equals(healthyReplicaKeys)) {
+            log.info("Healthy read replicas changed from {} to {}", healthyReplicaKeys, healthyKeys);
+        }
+        healthyReplicaKeys = List.copyOf(healthyKeys);
+    }
+
+    public List<String> getHealthyReplicaKeys() {
+        return healthyReplicaKeys;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private boolean isHealthy(String key, DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(REPLICATION_LAG_QUERY)) {
+            resultSet.next();
+            double lagSeconds = resultSet.getDouble(1);
+            if (lagSeconds * 1000 > maximumLag.toMillis()) {
+                log.warn("Read replica {} lags behind the primary by {} s", key, lagSeconds);
+                return false;
+            }
+
+            return true;
+        } catch (SQLException e) {
+            log.warn("Read replica {} is unavailable: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void markUnhealthy(String key, SQLException cause) {
+        log.warn("Read replica {} is unavailable, falling back to the primary: {}", key, cause.getMessage());
+        healthyReplicaKeys = healthyReplicaKeys.stream()
+                .filter(healthyKey -> !healthyKey.equals(key))
+                .toList();
+    }
+}
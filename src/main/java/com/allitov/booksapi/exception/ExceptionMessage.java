@@ -19,7 +19,41 @@ public class ExceptionMessage {
 
     public final String INVALID_CATEGORY_NAME_LENGTH = "Category name length must be <= {max} symbols";
 
+    public final String EMPTY_BOOK_BATCH = "At least one book must be specified";
+
+    public final String INVALID_BOOK_BATCH_SIZE = "Book batch size must be <= {max} books";
+
+    public final String INVALID_BOOK_LOOKUP = "Either book IDs or book names and authors must be specified";
+
+    public final String INVALID_BOOK_LOOKUP_SIZE = "Book lookup size must be <= {max} books";
+
+    public final String BLANK_BOOK_ID = "Book ID must be specified";
+
+    public final String INVALID_CURSOR = "Cursor must be a non-negative book ID";
+
+    public final String INVALID_PAGE_LIMIT = "Page limit must be between 1 and 1000";
+
+    public final String BLANK_SEARCH_QUERY = "Search query must be specified";
+
+    public final String INVALID_SEARCH_QUERY_LENGTH = "Search query length must be between {min} and {max} symbols";
+
+    public final String INVALID_SEARCH_PAGE = "Page number must be between 0 and 100";
+
+    public final String INVALID_SEARCH_PAGE_SIZE = "Page size must be between 1 and 100";
+
+    public final String INVALID_FILE_FORMAT = "File format must be 'ndjson' or 'csv'";
+
+    public final String INVALID_IMPORT_HEADER =
+            "Import header must consist of the columns name, author, categoryName, publicationDate "
+                    + "and optionally id, found '%s'";
+
+    public final String INVALID_IMPORT_ROWS = "%d imported rows have blank or too long values";
+
+    public final String INVALID_IMPORT_FILE = "Import file cannot be read: %s";
+
     public final String BOOK_BY_ID_NOT_FOUND = "Book with id '%d' not found";
 
     public final String BOOK_BY_NAME_AND_AUTHOR_NOT_FOUND = "Book with name '%s' and author '%s' not found";
+
+    public final String SERVER_BUSY = "Server is busy, try again later";
 }
@@ -0,0 +1,12 @@
+package com.allitov.booksapi.model.data;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import.
+ *
+ * @param importedBooks number of created books
+ * @param categoryNames names of the categories the books were added to
+ */
+public record BookImportResult(long importedBooks, List<String> categoryNames) {
+}
@@ -0,0 +1,7 @@
+package com.allitov.booksapi.model.data;
+
+/**
+ * Name and author a book is looked up by.
+ */
+public record BookKey(String name, String author) {
+}
@@ -0,0 +1,10 @@
+package com.allitov.booksapi.model.data;
+
+public interface BookNameAndAuthor {
+
+    Long getId();
+
+    String getName();
+
+    String getAuthor();
+}
@@ -0,0 +1,189 @@
+package com.allitov.booksapi.model.repository;
+
+import com.allitov.booksapi.util.CsvUtils;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Loads books in bulk through a staging table.
+ * <p>
+ * Rows are copied with the PostgreSQL {@code COPY} protocol into a temporary table, which is dropped
+ * when the transaction commits, and then merged into the books and categories tables with
+ * set-based statements. All methods must be called in the same transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookImportRepository {
+
+    public static final List<String> STAGING_COLUMNS =
+            List.of("id", "name", "author", "category_name", "publication_date");
+
+    /**
+     * Must be equal to the allocation size of the books ID generator.
+     */
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMPORARY TABLE book_import (
+                id TEXT,
+                name TEXT,
+                author TEXT,
+                category_name TEXT,
+                publication_date DATE
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COUNT_INVALID_ROWS = """
+            SELECT count(*) FROM book_import
+            WHERE name IS NULL OR btrim(name) = '' OR length(name) > 256
+                OR author IS NULL OR btrim(author) = '' OR length(author) > 256
+                OR category_name IS NULL OR btrim(category_name) = '' OR length(category_name) > 256
+                OR publication_date IS NULL
+            """;
+
+    private static final String MERGE_CATEGORIES = """
+            INSERT INTO books_api_schema.categories (name)
+            SELECT DISTINCT category_name FROM book_import
+            ON CONFLICT (name) DO NOTHING
+            """;
+
+    // IDs are taken in blocks from the sequence the same way Hibernate's pooled optimizer does it,
+    // a sequence value N reserves the IDs from N - 49 to N, so they never collide with IDs of books
+    // created through the API. Like the optimizer, a value below the block size, which a sequence with
+    // no values taken returns first, is discarded and replaced by the next one.
+    private static final String MERGE_BOOKS = """
+            WITH numbered AS (
+                SELECT name, author, category_name, publication_date, row_number() OVER () - 1 AS row_index
+                FROM book_import
+            ), allocated AS MATERIALIZED (
+                SELECT nextval('books_api_schema.books_id_seq') AS last_id
+                FROM generate_series(1, (SELECT (count(*) + %1$d - 1) / %1$d FROM book_import))
+            ), blocks AS (
+                SELECT row_number() OVER (ORDER BY last_id) - 1 AS block_index, last_id
+                FROM (
+                    SELECT last_id FROM allocated WHERE last_id >= %1$d
+                    UNION ALL
+                    SELECT nextval('books_api_schema.books_id_seq') FROM allocated WHERE last_id < %1$d
+                ) AS valid
+            )
+            INSERT INTO books_api_schema.books (id, name, author, category_id, publication_date)
+            SELECT b.last_id - %1$d + 1 + n.row_index %% %1$d, n.name, n.author, c.id, n.publication_date
+            FROM numbered n
+            JOIN blocks b ON b.block_index = n.row_index / %1$d
+            JOIN books_api_schema.categories c ON c.name = n.category_name
+            """.formatted(ID_ALLOCATION_SIZE);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void createStagingTable() {
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+    }
+
+    /**
+     * Copies CSV rows without a header into the given staging columns.
+     */
+    public long copyCsv(List<String> columns, InputStream csv) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql(columns), csv);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Copies rows of values into the given staging columns.
+     */
+    public long copyRows(List<String> columns, Iterator<List<String>> rows) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql(columns));
+            try {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(COPY_BUFFER_SIZE);
+                while (rows.hasNext()) {
+                    buffer.writeBytes(toCsvLine(rows.next()).getBytes(StandardCharsets.UTF_8));
+                    if (buffer.size() >= COPY_BUFFER_SIZE) {
+                        copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                        buffer.reset();
+                    }
+                }
+                copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        });
+    }
+
+    public long countInvalidRows() {
+        Long count = jdbcTemplate.queryForObject(COUNT_INVALID_ROWS, Long.class);
+
+        return count == null ? 0L : count;
+    }
+
+    public List<String> findStagedCategoryNames() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT category_name FROM book_import", String.class);
+    }
+
+    /**
+     * Passes the name and author of every staged book to the consumer, reading them through a cursor.
+     */
+    public void forEachStagedBook(BiConsumer<String, String> consumer) {
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement("SELECT name, author FROM book_import");
+                    statement.setFetchSize(FETCH_SIZE);
+
+                    return statement;
+                },
+                (RowCallbackHandler) resultSet ->
+                        consumer.accept(resultSet.getString("name"), resultSet.getString("author"))
+        );
+    }
+
+    public void mergeCategories() {
+        jdbcTemplate.update(MERGE_CATEGORIES);
+    }
+
+    public long mergeBooks() {
+        return jdbcTemplate.update(MERGE_BOOKS);
+    }
+
+    private static String copySql(List<String> columns) {
+        return "COPY book_import (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+    }
+
+    private static String toCsvLine(List<String> values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(CsvUtils.toField(values.get(i)));
+        }
+
+        return line.append('\n').toString();
+    }
+}
@@ -0,0 +1,56 @@
+package com.allitov.booksapi.model.repository;
+
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.BookKey;
+import com.allitov.booksapi.model.data.Category;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lookup of many books by name and author with a single query.
+ * <p>
+ * The pairs are passed as two arrays and joined to the books as a table, so every pair is matched
+ * through the {@code books_name_author_idx} index. Like the lookup of a single pair, the book with
+ * the lowest ID is returned when several books share a name and author.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookLookupRepository {
+
+    private static final String LOOKUP_QUERY = """
+            SELECT DISTINCT ON (b.name, b.author)
+                b.id, b.name, b.author, c.id AS category_id, c.name AS category_name, b.publication_date
+            FROM unnest(CAST(? AS varchar[]), CAST(? AS varchar[])) AS k(name, author)
+            JOIN books_api_schema.books b ON b.name = k.name AND b.author = k.author
+            JOIN books_api_schema.categories c ON c.id = b.category_id
+            ORDER BY b.name, b.author, b.id
+            """;
+
+    private static final RowMapper<Book> BOOK_ROW_MAPPER = (resultSet, rowNumber) -> new Book(
+            resultSet.getLong("id"),
+            resultSet.getString("name"),
+            resultSet.getString("author"),
+            new Category(resultSet.getLong("category_id"), resultSet.getString("category_name")),
+            resultSet.getObject("publication_date", LocalDate.class)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public List<Book> findBooksByKeys(Collection<BookKey> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(LOOKUP_QUERY, BOOK_ROW_MAPPER,
+                keys.stream().map(BookKey::name).toArray(String[]::new),
+                keys.stream().map(BookKey::author).toArray(String[]::new));
+    }
+}
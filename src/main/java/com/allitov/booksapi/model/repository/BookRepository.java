@@ -1,16 +1,46 @@
 package com.allitov.booksapi.model.repository;
 
 import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.BookNameAndAuthor;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
 
-    Optional<Book> findFirstBookByNameAndAuthor(String bookName, String author);
+    Optional<Book> findFirstBookByNameAndAuthorOrderByIdAsc(String bookName, String author);
 
-    List<Book> findBooksByCategoryName(String categoryName);
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.id FROM Book b WHERE b.category.name = :categoryName ORDER BY b.id ASC")
+    List<Long> findBookIdsByCategoryName(@Param("categoryName") String categoryName);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.allitov.booksapi.web.dto.response.BookResponse("
+            + "b.id, b.name, b.author, c.name, b.publicationDate) "
+            + "FROM Book b JOIN b.category c "
+            + "WHERE b.id IN :ids")
+    List<BookResponse> findBookResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.allitov.booksapi.web.dto.response.BookResponse("
+            + "b.id, b.name, b.author, c.name, b.publicationDate) "
+            + "FROM Book b JOIN b.category c "
+            + "ORDER BY b.id ASC")
+    Stream<BookResponse> streamAllBookResponses();
+
+    List<BookNameAndAuthor> findBookKeysByIdGreaterThanOrderByIdAsc(Long lastId, Limit limit);
 
     List<Book> deleteBookById(Long id);
 }
@@ -0,0 +1,45 @@
+package com.allitov.booksapi.model.repository;
+
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Ranked search of books by name and author.
+ * <p>
+ * Uses the {@code pg_trgm} word similarity operator, which is served by the {@code books_name_author_trgm_idx}
+ * index, so it matches parts of words and tolerates typos. The searched expression must stay the same
+ * as the indexed one for the index to be used.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookSearchRepository {
+
+    private static final String SEARCH_QUERY = """
+            SELECT b.id, b.name, b.author, c.name AS category_name, b.publication_date
+            FROM books_api_schema.books b
+            JOIN books_api_schema.categories c ON c.id = b.category_id
+            WHERE ? <% (b.name || ' ' || b.author)
+            ORDER BY word_similarity(?, b.name || ' ' || b.author) DESC, b.id ASC
+            LIMIT ? OFFSET ?
+            """;
+
+    private static final RowMapper<BookResponse> BOOK_RESPONSE_ROW_MAPPER = (resultSet, rowNumber) -> new BookResponse(
+            resultSet.getLong("id"),
+            resultSet.getString("name"),
+            resultSet.getString("author"),
+            resultSet.getString("category_name"),
+            resultSet.getObject("publication_date", LocalDate.class)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<BookResponse> searchBooks(String query, int offset, int limit) {
+        return jdbcTemplate.query(SEARCH_QUERY, BOOK_RESPONSE_ROW_MAPPER, query, query, limit, offset);
+    }
+}
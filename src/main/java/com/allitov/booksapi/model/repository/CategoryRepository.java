@@ -2,10 +2,30 @@ package com.allitov.booksapi.model.repository;
 
 import com.allitov.booksapi.model.data.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     Optional<Category> findCategoryByName(String categoryName);
+
+    List<Category> findCategoriesByNameIn(Collection<String> categoryNames);
+
+    @Query(
+            value = "INSERT INTO categories (name) VALUES (:categoryName) ON CONFLICT (name) DO NOTHING RETURNING id",
+            nativeQuery = true
+    )
+    Optional<Long> insertCategoryIfAbsent(@Param("categoryName") String categoryName);
+
+    @Query(
+            value = """
+                    INSERT INTO categories (name) SELECT unnest(CAST(:categoryNames AS varchar[]))
+                    ON CONFLICT (name) DO NOTHING RETURNING id, name""",
+            nativeQuery = true
+    )
+    List<Category> insertCategoriesIfAbsent(@Param("categoryNames") String[] categoryNames);
 }
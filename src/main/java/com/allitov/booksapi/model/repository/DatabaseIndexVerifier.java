@@ -0,0 +1,50 @@
+package com.allitov.booksapi.model.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks at startup that the indexes used by the book lookups exist.
+ * <p>
+ * Runs after the migrations and fails the startup if any index is missing,
+ * so the lookups never silently fall back to sequential scans.
+ */
+@Slf4j
+@Component
+@DependsOnDatabaseInitialization
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.database", name = "verify-indexes", havingValue = "true")
+public class DatabaseIndexVerifier implements InitializingBean {
+
+    public static final String SCHEMA_NAME = "books_api_schema";
+
+    public static final List<String> EXPECTED_INDEXES = List.of(
+            "books_name_author_idx",
+            "books_category_id_id_idx",
+            "books_name_author_trgm_idx"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        Set<String> missingIndexes = new HashSet<>(EXPECTED_INDEXES);
+        missingIndexes.removeAll(jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = ?", String.class, SCHEMA_NAME));
+
+        if (!missingIndexes.isEmpty()) {
+            throw new IllegalStateException(String.format(
+                    "Missing database indexes in schema '%s': %s", SCHEMA_NAME, missingIndexes));
+        }
+        log.info("Verified {} database indexes", EXPECTED_INDEXES.size());
+    }
+}
@@ -0,0 +1,83 @@
+package com.allitov.booksapi.model.repository;
+
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.Category;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking book queries over R2DBC, the same as the ones of {@link BookRepository}.
+ */
+@RequiredArgsConstructor
+public class ReactiveBookRepository {
+
+    private static final String FIND_BOOK_BY_NAME_AND_AUTHOR = """
+            SELECT b.id, b.name, b.author, c.id AS category_id, c.name AS category_name, b.publication_date
+            FROM books_api_schema.books b
+            JOIN books_api_schema.categories c ON c.id = b.category_id
+            WHERE b.name = :bookName AND b.author = :author
+            ORDER BY b.id ASC
+            LIMIT 1
+            """;
+
+    private static final String FIND_BOOKS_BY_CATEGORY_NAME = """
+            SELECT b.id, b.name, b.author, c.name AS category_name, b.publication_date
+            FROM books_api_schema.books b
+            JOIN books_api_schema.categories c ON c.id = b.category_id
+            WHERE c.name = :categoryName AND b.id > :lastId
+            ORDER BY b.id ASC
+            LIMIT :limit
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    private final int fetchSize;
+
+    public Mono<Book> findFirstBookByNameAndAuthorOrderByIdAsc(String bookName, String author) {
+        return databaseClient.sql(FIND_BOOK_BY_NAME_AND_AUTHOR)
+                .bind("bookName", bookName)
+                .bind("author", author)
+                .map(ReactiveBookRepository::toBook)
+                .one();
+    }
+
+    /**
+     * Emits the books as they are fetched, requesting the next rows from the database only when
+     * the subscriber demands them.
+     */
+    public Flux<BookResponse> findBookResponsesByCategoryName(String categoryName, Long lastId, int limit) {
+        return databaseClient.sql(FIND_BOOKS_BY_CATEGORY_NAME)
+                .bind("categoryName", categoryName)
+                .bind("lastId", lastId)
+                .bind("limit", limit)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveBookRepository::toBookResponse)
+                .all();
+    }
+
+    private static Book toBook(Readable row) {
+        return Book.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .author(row.get("author", String.class))
+                .category(new Category(row.get("category_id", Long.class), row.get("category_name", String.class)))
+                .publicationDate(row.get("publication_date", LocalDate.class))
+                .build();
+    }
+
+    private static BookResponse toBookResponse(Readable row) {
+        return new BookResponse(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("author", String.class),
+                row.get("category_name", String.class),
+                row.get("publication_date", LocalDate.class)
+        );
+    }
+}
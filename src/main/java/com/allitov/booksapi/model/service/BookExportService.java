@@ -0,0 +1,9 @@
+package com.allitov.booksapi.model.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookExportService {
+
+    void exportBooks(BookFileFormat format, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,20 @@
+package com.allitov.booksapi.model.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum BookFileFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+
+    private final String fileExtension;
+
+    public static BookFileFormat fromName(String name) {
+        return valueOf(name.toUpperCase());
+    }
+}
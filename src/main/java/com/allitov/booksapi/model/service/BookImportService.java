@@ -0,0 +1,11 @@
+package com.allitov.booksapi.model.service;
+
+import com.allitov.booksapi.model.data.BookImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface BookImportService {
+
+    BookImportResult importBooks(BookFileFormat format, InputStream inputStream) throws IOException;
+}
@@ -1,17 +1,29 @@
 package com.allitov.booksapi.model.service;
 
 import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.BookKey;
+import com.allitov.booksapi.web.dto.response.BookResponse;
 
 import java.util.List;
 
 public interface BookService {
 
+    Book findBookById(Long id);
+
     Book findBookByNameAndAuthor(String bookName, String author);
 
-    List<Book> findBooksByCategoryName(String categoryName);
+    List<BookResponse> findBooksByIds(List<Long> ids);
+
+    List<BookResponse> findBooksByKeys(List<BookKey> keys);
+
+    List<BookResponse> findBooksByCategoryName(String categoryName, Long lastId, int limit);
+
+    List<BookResponse> searchBooks(String query, int page, int size);
 
     Book createBook(Book book);
 
+    List<Book> createBooks(List<Book> books);
+
     Book updateBook(Book book);
 
     void deleteBookById(Long id);
@@ -0,0 +1,13 @@
+package com.allitov.booksapi.model.service;
+
+import com.allitov.booksapi.model.data.Category;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface CategoryResolver {
+
+    Category resolveCategory(String categoryName);
+
+    Map<String, Category> resolveCategories(Collection<String> categoryNames);
+}
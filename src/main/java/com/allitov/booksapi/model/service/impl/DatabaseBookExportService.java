@@ -0,0 +1,87 @@
+package com.allitov.booksapi.model.service.impl;
+
+import com.allitov.booksapi.model.repository.BookRepository;
+import com.allitov.booksapi.model.service.BookExportService;
+import com.allitov.booksapi.model.service.BookFileFormat;
+import com.allitov.booksapi.util.CsvUtils;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalogue to an output stream row by row.
+ * <p>
+ * Rows are read through a database cursor as {@link BookResponse} projections, which are not managed
+ * by the persistence context, and each row is written as soon as it is read, so memory use does not
+ * depend on the number of books.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed("books.export")
+public class DatabaseBookExportService implements BookExportService {
+
+    private static final String CSV_HEADER = "id,name,author,categoryName,publicationDate";
+
+    private final BookRepository bookRepository;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBooks(@NonNull BookFileFormat format, @NonNull OutputStream outputStream) throws IOException {
+        try (Stream<BookResponse> books = bookRepository.streamAllBookResponses()) {
+            switch (format) {
+                case NDJSON -> writeNdjson(books.iterator(), outputStream);
+                case CSV -> writeCsv(books.iterator(), outputStream);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<BookResponse> books, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(BookResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.setRootValueSeparator(null);
+        while (books.hasNext()) {
+            writer.writeValue(generator, books.next());
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private void writeCsv(Iterator<BookResponse> books, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (books.hasNext()) {
+            BookResponse book = books.next();
+            writer.write(String.valueOf(book.getId()));
+            writer.write(',');
+            writer.write(CsvUtils.toField(book.getName()));
+            writer.write(',');
+            writer.write(CsvUtils.toField(book.getAuthor()));
+            writer.write(',');
+            writer.write(CsvUtils.toField(book.getCategoryName()));
+            writer.write(',');
+            writer.write(book.getPublicationDate().toString());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,183 @@
+package com.allitov.booksapi.model.service.impl;
+
+import com.allitov.booksapi.cache.AfterCommitCacheInvalidator;
+import com.allitov.booksapi.cache.BookBloomFilter;
+import com.allitov.booksapi.cache.CategoryBookCache;
+import com.allitov.booksapi.exception.ExceptionMessage;
+import com.allitov.booksapi.exception.InvalidImportException;
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.BookImportResult;
+import com.allitov.booksapi.model.repository.BookImportRepository;
+import com.allitov.booksapi.model.service.BookFileFormat;
+import com.allitov.booksapi.model.service.BookImportService;
+import com.allitov.booksapi.web.dto.request.BookRequest;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import io.micrometer.core.annotation.Timed;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.StreamSupport;
+
+/**
+ * Imports books in bulk with the PostgreSQL {@code COPY} protocol.
+ * <p>
+ * The request body is copied into a staging table as it is read, validated and merged into the books
+ * and categories tables with a few set-based statements in a single transaction. The versions of all
+ * affected categories are then incremented at once and the imported books are added to the book filter.
+ * The IDs of the imported books are not known to the service, so neither {@code bookByNameAndAuthor} nor
+ * {@code bookById} is updated: lookups of imported books by name and author or by ID that were cached as
+ * missing keep failing until the missing entries expire after the null value TTL.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Timed("books.import")
+public class DatabaseBookImportService implements BookImportService {
+
+    private static final Map<String, String> CSV_COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "author", "author",
+            "categoryName", "category_name",
+            "publicationDate", "publication_date"
+    );
+
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("name", "author", "category_name", "publication_date");
+
+    private static final int MAX_HEADER_LENGTH = 1024;
+
+    private static final int BOOK_FILTER_BATCH_SIZE = 10_000;
+
+    private final BookImportRepository bookImportRepository;
+
+    private final AfterCommitCacheInvalidator cacheInvalidator;
+
+    private final BookBloomFilter bookBloomFilter;
+
+    private final CategoryBookCache categoryBookCache;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional
+    public BookImportResult importBooks(@NonNull BookFileFormat format,
+                                        @NonNull InputStream inputStream) throws IOException {
+        bookImportRepository.createStagingTable();
+        long stagedBooks;
+        try {
+            stagedBooks = switch (format) {
+                case CSV -> copyCsv(new BufferedInputStream(inputStream));
+                case NDJSON -> copyNdjson(inputStream);
+            };
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidImportException(String.format(
+                    ExceptionMessage.INVALID_IMPORT_FILE, e.getMostSpecificCause().getMessage()));
+        } catch (RuntimeJsonMappingException e) {
+            throw new InvalidImportException(String.format(ExceptionMessage.INVALID_IMPORT_FILE, e.getMessage()));
+        }
+        if (stagedBooks == 0) {
+            return new BookImportResult(0, List.of());
+        }
+
+        long invalidBooks = bookImportRepository.countInvalidRows();
+        if (invalidBooks > 0) {
+            throw new InvalidImportException(String.format(ExceptionMessage.INVALID_IMPORT_ROWS, invalidBooks));
+        }
+
+        bookImportRepository.mergeCategories();
+        long importedBooks = bookImportRepository.mergeBooks();
+        List<String> categoryNames = bookImportRepository.findStagedCategoryNames();
+        cacheInvalidator.incrementVersionsAfterCommit(categoryNames);
+        cacheInvalidator.runAfterCommit(() -> categoryBookCache.evictCategories(categoryNames));
+        addStagedBooksToBookFilter();
+        log.info("Imported {} books into {} categories", importedBooks, categoryNames.size());
+
+        return new BookImportResult(importedBooks, categoryNames);
+    }
+
+    private long copyCsv(InputStream inputStream) throws IOException {
+        String header = readHeader(inputStream);
+        if (header.isEmpty()) {
+            return 0;
+        }
+
+        List<String> columns = new ArrayList<>();
+        for (String headerColumn : header.split(",")) {
+            String column = CSV_COLUMNS.get(headerColumn.strip());
+            if (column == null || columns.contains(column)) {
+                throw new InvalidImportException(String.format(ExceptionMessage.INVALID_IMPORT_HEADER, header));
+            }
+            columns.add(column);
+        }
+        if (!columns.containsAll(REQUIRED_COLUMNS)) {
+            throw new InvalidImportException(String.format(ExceptionMessage.INVALID_IMPORT_HEADER, header));
+        }
+
+        return bookImportRepository.copyCsv(columns, inputStream);
+    }
+
+    private long copyNdjson(InputStream inputStream) throws IOException {
+        try (MappingIterator<BookRequest> books = objectMapper.readerFor(BookRequest.class).readValues(inputStream)) {
+            Iterator<List<String>> rows = StreamSupport.stream(
+                            Spliterators.spliteratorUnknownSize(books, Spliterator.ORDERED), false)
+                    .map(book -> Arrays.asList(
+                            book.getName(),
+                            book.getAuthor(),
+                            book.getCategoryName(),
+                            book.getPublicationDate() == null ? null : book.getPublicationDate().toString()))
+                    .iterator();
+
+            return bookImportRepository.copyRows(REQUIRED_COLUMNS, rows);
+        }
+    }
+
+    private void addStagedBooksToBookFilter() {
+        List<Book> books = new ArrayList<>(BOOK_FILTER_BATCH_SIZE);
+        bookImportRepository.forEachStagedBook((bookName, author) -> {
+            books.add(Book.builder().name(bookName).author(author).build());
+            if (books.size() == BOOK_FILTER_BATCH_SIZE) {
+                bookBloomFilter.addAll(books);
+                books.clear();
+            }
+        });
+        if (!books.isEmpty()) {
+            bookBloomFilter.addAll(books);
+        }
+    }
+
+    /**
+     * Reads the first line of the CSV file, leaving the stream at the start of the second line.
+     */
+    private static String readHeader(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        int b;
+        while ((b = inputStream.read()) != -1 && b != '\n') {
+            if (header.size() == MAX_HEADER_LENGTH) {
+                throw new InvalidImportException(String.format(
+                        ExceptionMessage.INVALID_IMPORT_HEADER, header.toString(StandardCharsets.UTF_8)));
+            }
+            header.write(b);
+        }
+
+        return header.toString(StandardCharsets.UTF_8).replace("\uFEFF", "").strip();
+    }
+}
@@ -1,92 +1,287 @@
 package com.allitov.booksapi.model.service.impl;
 
+import com.allitov.booksapi.cache.AfterCommitCacheInvalidator;
+import com.allitov.booksapi.cache.BookBloomFilter;
+import com.allitov.booksapi.cache.BookByNameAndAuthorCache;
+import com.allitov.booksapi.cache.CategoryBookCache;
 import com.allitov.booksapi.exception.ExceptionMessage;
 import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.BookKey;
 import com.allitov.booksapi.model.data.Category;
+import com.allitov.booksapi.model.repository.BookLookupRepository;
 import com.allitov.booksapi.model.repository.BookRepository;
-import com.allitov.booksapi.model.repository.CategoryRepository;
+import com.allitov.booksapi.model.repository.BookSearchRepository;
 import com.allitov.booksapi.model.service.BookService;
+import com.allitov.booksapi.model.service.CategoryResolver;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
-@CacheConfig(cacheManager = "redisCacheManager")
+@Timed("books.service")
 public class DatabaseBookService implements BookService {
 
+    private static final String BOOK_BY_ID_CACHE = "bookById";
+
+    private static final String BOOK_BY_NAME_AND_AUTHOR_CACHE = BookByNameAndAuthorCache.CACHE_NAME;
+
     private final BookRepository bookRepository;
 
-    private final CategoryRepository categoryRepository;
+    private final CategoryResolver categoryResolver;
 
     private final CacheManager cacheManager;
 
+    private final AfterCommitCacheInvalidator cacheInvalidator;
+
+    private final BookBloomFilter bookBloomFilter;
+
+    private final BookSearchRepository bookSearchRepository;
+
+    private final CategoryBookCache categoryBookCache;
+
+    private final BookByNameAndAuthorCache bookByNameAndAuthorCache;
+
+    private final BookLookupRepository bookLookupRepository;
+
+    /**
+     * Returns the book with the given ID.
+     * <p>
+     * Books are cached by ID and written to the cache by creates and updates. IDs the database does not
+     * have are cached as {@code null} for a short time.
+     */
+    @Override
     public Book findBookById(@NonNull Long id) {
-        return bookRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        String.format(ExceptionMessage.BOOK_BY_ID_NOT_FOUND, id)));
+        Book book = cacheManager.getCache(BOOK_BY_ID_CACHE).get(id,
+                () -> bookRepository.findById(id).orElse(null));
+        if (book == null) {
+            throw bookNotFound(id);
+        }
+
+        return book;
     }
 
+    /**
+     * Returns the book with the given name and author.
+     * <p>
+     * On a cache miss pairs missing from the book filter are rejected without a database query. Pairs the
+     * database does not have are cached as {@code null} for a short time, so repeated lookups of them
+     * do not reach the database either.
+     */
     @Override
-    @Cacheable(value = "bookByNameAndAuthor", key = "#bookName.concat('-').concat(#author)")
     public Book findBookByNameAndAuthor(@NonNull String bookName, @NonNull String author) {
-        return bookRepository.findFirstBookByNameAndAuthor(bookName, author)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        String.format(ExceptionMessage.BOOK_BY_NAME_AND_AUTHOR_NOT_FOUND, bookName, author)));
+        Book book;
+        try {
+            book = cacheManager.getCache(BOOK_BY_NAME_AND_AUTHOR_CACHE).get(
+                    bookByNameAndAuthorKey(bookName, author),
+                    () -> {
+                        if (!bookBloomFilter.mightContain(bookName, author)) {
+                            throw bookNotFound(bookName, author);
+                        }
+
+                        return bookRepository.findFirstBookByNameAndAuthorOrderByIdAsc(bookName, author).orElse(null);
+                    }
+            );
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof EntityNotFoundException notFound) {
+                throw notFound;
+            }
+            throw e;
+        }
+
+        if (book == null) {
+            throw bookNotFound(bookName, author);
+        }
+
+        return book;
+    }
+
+    /**
+     * Returns the books with the given IDs in the order of the IDs, {@code null} for IDs without a book.
+     * <p>
+     * The books are read from the cached books of the categories at once, and the missing ones are
+     * loaded with a single query and cached.
+     */
+    @Override
+    public List<BookResponse> findBooksByIds(@NonNull List<Long> ids) {
+        Map<Long, BookResponse> books = categoryBookCache.getBooks(ids.stream().distinct().toList(),
+                bookRepository::findBookResponsesByIdIn);
+
+        return ids.stream()
+                .map(books::get)
+                .toList();
+    }
+
+    /**
+     * Returns the books with the given names and authors in the order of the keys, {@code null} for keys
+     * without a book.
+     * <p>
+     * The books are read from the cache of single lookups at once. Of the missing ones, the keys the book
+     * filter rejects are skipped and the others are loaded with a single query. Loaded books and keys
+     * without a book are cached like single lookups.
+     */
+    @Override
+    public List<BookResponse> findBooksByKeys(@NonNull List<BookKey> keys) {
+        Map<BookKey, Book> books = bookByNameAndAuthorCache.getBooks(keys.stream().distinct().toList(),
+                missingKeys -> {
+                    List<Boolean> mightContain = bookBloomFilter.mightContainAll(missingKeys);
+                    Map<BookKey, Book> loadedBooks = new HashMap<>();
+                    for (int i = 0; i < missingKeys.size(); i++) {
+                        if (mightContain.get(i)) {
+                            loadedBooks.put(missingKeys.get(i), null);
+                        }
+                    }
+                    bookLookupRepository.findBooksByKeys(loadedBooks.keySet()).forEach(book ->
+                            loadedBooks.put(new BookKey(book.getName(), book.getAuthor()), book));
+
+                    return loadedBooks;
+                });
+
+        return keys.stream()
+                .map(books::get)
+                .map(book -> book == null ? null : new BookResponse(book.getId(), book.getName(),
+                        book.getAuthor(), book.getCategory().getName(), book.getPublicationDate()))
+                .toList();
+    }
+
+    /**
+     * Returns a page of books of the category ordered by ID.
+     * <p>
+     * The page is assembled from the cached IDs of the category and the cached books, and only books
+     * missing from the cache are read from the database, so a write to the category does not make
+     * the next read query the whole category again.
+     */
+    @Override
+    public List<BookResponse> findBooksByCategoryName(@NonNull String categoryName, @NonNull Long lastId, int limit) {
+        return categoryBookCache.getPage(categoryName, lastId, limit,
+                () -> bookRepository.findBookIdsByCategoryName(categoryName),
+                bookRepository::findBookResponsesByIdIn);
     }
 
+    /**
+     * Returns a page of books whose name or author is similar to the query, the most similar first.
+     * <p>
+     * Pages are cached under the normalized query for a short time, so popular queries are answered
+     * from the cache while results of rare ones expire quickly.
+     */
     @Override
-    @Cacheable(value = "booksByCategoryName", key = "#categoryName")
-    public List<Book> findBooksByCategoryName(String categoryName) {
-        return bookRepository.findBooksByCategoryName(categoryName);
+    @Transactional(readOnly = true)
+    @Cacheable(
+            value = "bookSearch",
+            key = "#query.strip().toLowerCase().replaceAll('\\s+', ' ') + '-' + #page + '-' + #size",
+            sync = true
+    )
+    public List<BookResponse> searchBooks(@NonNull String query, int page, int size) {
+        return bookSearchRepository.searchBooks(query, page * size, size);
     }
 
+    /**
+     * Creates the book and, once the creation has committed, writes it to the cache by ID and, if no other
+     * book might have its name and author, to the cache by name and author. Otherwise the cached lookup
+     * of its name and author is evicted.
+     */
     @Override
     @Transactional
-    @CacheEvict(value = "booksByCategoryName", key = "#book.category.name", beforeInvocation = true)
     public Book createBook(@NonNull Book book) {
         String categoryName = book.getCategory().getName();
+        String key = bookByNameAndAuthorKey(book.getName(), book.getAuthor());
+
+        book.setCategory(categoryResolver.resolveCategory(categoryName));
+        Book savedBook = bookRepository.save(book);
+        cacheInvalidator.incrementVersionsAfterCommit(List.of(categoryName));
+        cacheInvalidator.runAfterCommit(() -> categoryBookCache.addBooks(List.of(savedBook)));
+        cacheInvalidator.putAfterCommit(BOOK_BY_ID_CACHE, savedBook.getId(), savedBook);
+        if (bookBloomFilter.add(book.getName(), book.getAuthor())) {
+            cacheInvalidator.evictAfterCommit(BOOK_BY_NAME_AND_AUTHOR_CACHE, List.of(key));
+        } else {
+            cacheInvalidator.putAfterCommit(BOOK_BY_NAME_AND_AUTHOR_CACHE, key, savedBook);
+        }
+
+        return savedBook;
+    }
+
+    /**
+     * Creates the books and, once the creation has committed, writes every book to the cache by ID like
+     * {@link #createBook(Book)} does. The cached lookups of names and authors other books might have are evicted.
+     */
+    @Override
+    @Transactional
+    public List<Book> createBooks(@NonNull List<Book> books) {
+        Set<String> categoryNames = books.stream()
+                .map(book -> book.getCategory().getName())
+                .collect(Collectors.toSet());
 
-        Optional<Category> category = categoryRepository.findCategoryByName(categoryName);
-        book.setCategory(category.orElseGet(() ->
-                categoryRepository.save(Category.builder().name(categoryName).build())));
+        Map<String, Category> categories = categoryResolver.resolveCategories(categoryNames);
+        books.forEach(book -> book.setCategory(categories.get(book.getCategory().getName())));
+        List<Book> savedBooks = bookRepository.saveAll(books);
+        cacheInvalidator.incrementVersionsAfterCommit(categoryNames);
+        cacheInvalidator.runAfterCommit(() -> categoryBookCache.addBooks(savedBooks));
+        savedBooks.forEach(savedBook ->
+                cacheInvalidator.putAfterCommit(BOOK_BY_ID_CACHE, savedBook.getId(), savedBook));
+        List<Boolean> previouslyContained = bookBloomFilter.addAll(books);
+        List<String> evictedKeys = new ArrayList<>();
+        for (int i = 0; i < books.size(); i++) {
+            if (previouslyContained.get(i)) {
+                evictedKeys.add(bookByNameAndAuthorKey(books.get(i).getName(), books.get(i).getAuthor()));
+            }
+        }
+        cacheInvalidator.evictAfterCommit(BOOK_BY_NAME_AND_AUTHOR_CACHE, evictedKeys);
 
-        return bookRepository.save(book);
+        return savedBooks;
     }
 
+    /**
+     * Updates the book and, once the update has committed, writes it to the cache by ID, evicts the cached
+     * lookup of its previous name and author and moves it from its previous category to its new one
+     * in the cache. The book is written to the cache by its new name and author if no other book might have
+     * them or it has the lowest ID of the books that have them, otherwise that lookup is evicted as well.
+     */
     @Override
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(
-                    value = "bookByNameAndAuthor",
-                    key = "#book.name.concat('-').concat(#book.author)",
-                    beforeInvocation = true
-            ),
-            @CacheEvict(
-                    value = "booksByCategoryName",
-                    key = "#book.category.name",
-                    beforeInvocation = true
-            )
-    })
     public Book updateBook(@NonNull Book book) {
-        findBookById(book.getId());
+        Book previousBook = bookRepository.findById(book.getId())
+                .orElseThrow(() -> bookNotFound(book.getId()));
+        String previousKey = bookByNameAndAuthorKey(previousBook.getName(), previousBook.getAuthor());
+        String key = bookByNameAndAuthorKey(book.getName(), book.getAuthor());
+        String previousCategoryName = previousBook.getCategory().getName();
         String categoryName = book.getCategory().getName();
 
-        Optional<Category> category = categoryRepository.findCategoryByName(categoryName);
-        book.setCategory(category.orElseGet(() ->
-                categoryRepository.save(Category.builder().name(categoryName).build())));
+        book.setCategory(categoryResolver.resolveCategory(categoryName));
+        boolean previouslyContained = bookBloomFilter.add(book.getName(), book.getAuthor());
+        Book savedBook = bookRepository.save(book);
+        cacheInvalidator.putAfterCommit(BOOK_BY_ID_CACHE, savedBook.getId(), savedBook);
+        if (!key.equals(previousKey)) {
+            cacheInvalidator.evictAfterCommit(BOOK_BY_NAME_AND_AUTHOR_CACHE, List.of(previousKey));
+        }
+        if (!previouslyContained || bookRepository.findFirstBookByNameAndAuthorOrderByIdAsc(
+                        savedBook.getName(), savedBook.getAuthor())
+                .map(firstBook -> firstBook.getId().equals(savedBook.getId()))
+                .orElse(false)) {
+            cacheInvalidator.putAfterCommit(BOOK_BY_NAME_AND_AUTHOR_CACHE, key, savedBook);
+        } else {
+            cacheInvalidator.evictAfterCommit(BOOK_BY_NAME_AND_AUTHOR_CACHE, List.of(key));
+        }
+        cacheInvalidator.incrementVersionsAfterCommit(
+                Stream.of(previousCategoryName, categoryName).distinct().toList());
+        cacheInvalidator.runAfterCommit(() ->
+                categoryBookCache.moveBook(book.getId(), previousCategoryName, categoryName));
 
-        return bookRepository.save(book);
+        return savedBook;
     }
 
     @Override
@@ -96,10 +291,25 @@ public class DatabaseBookService implements BookService {
 
         if (!deletedBooks.isEmpty()) {
             Book book = deletedBooks.getFirst();
-            String bookByNameAndAuthorKey = book.getName() + "-" + book.getAuthor();
-            String booksByCategoryNameKey = book.getCategory().getName();
-            cacheManager.getCache("bookByNameAndAuthor").evictIfPresent(bookByNameAndAuthorKey);
-            cacheManager.getCache("booksByCategoryName").evictIfPresent(booksByCategoryNameKey);
+            cacheInvalidator.evictAfterCommit(BOOK_BY_ID_CACHE, List.of(book.getId()));
+            cacheInvalidator.evictAfterCommit(BOOK_BY_NAME_AND_AUTHOR_CACHE,
+                    List.of(bookByNameAndAuthorKey(book.getName(), book.getAuthor())));
+            cacheInvalidator.incrementVersionsAfterCommit(List.of(book.getCategory().getName()));
+            cacheInvalidator.runAfterCommit(() ->
+                    categoryBookCache.removeBook(book.getId(), book.getCategory().getName()));
         }
     }
+
+    private static EntityNotFoundException bookNotFound(Long id) {
+        return new EntityNotFoundException(String.format(ExceptionMessage.BOOK_BY_ID_NOT_FOUND, id));
+    }
+
+    private static EntityNotFoundException bookNotFound(String bookName, String author) {
+        return new EntityNotFoundException(
+                String.format(ExceptionMessage.BOOK_BY_NAME_AND_AUTHOR_NOT_FOUND, bookName, author));
+    }
+
+    private static String bookByNameAndAuthorKey(String bookName, String author) {
+        return bookName + "-" + author;
+    }
 }
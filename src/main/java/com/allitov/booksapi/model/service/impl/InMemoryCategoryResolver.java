@@ -0,0 +1,123 @@
+package com.allitov.booksapi.model.service.impl;
+
+import com.allitov.booksapi.model.data.Category;
+import com.allitov.booksapi.model.repository.CategoryRepository;
+import com.allitov.booksapi.model.service.CategoryResolver;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves category names to categories using an in-memory map of category IDs.
+ * <p>
+ * The map is loaded at startup. Unknown categories are created with an insert that ignores
+ * the unique name conflict, so concurrent writers of the same new category do not fail. Several unknown
+ * categories are created with a single insert, and the ones that already existed are read with a single select.
+ * IDs found inside a transaction are remembered only after it commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InMemoryCategoryResolver implements CategoryResolver {
+
+    private final CategoryRepository categoryRepository;
+
+    private final ConcurrentMap<String, Long> categoryIds = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCategories() {
+        categoryIds.clear();
+        categoryRepository.findAll().forEach(category -> categoryIds.put(category.getName(), category.getId()));
+        log.info("Loaded {} categories", categoryIds.size());
+    }
+
+    @Override
+    public Category resolveCategory(@NonNull String categoryName) {
+        Long categoryId = categoryIds.get(categoryName);
+        if (categoryId == null) {
+            categoryId = insertCategory(categoryName);
+        }
+
+        return new Category(categoryId, categoryName);
+    }
+
+    @Override
+    public Map<String, Category> resolveCategories(@NonNull Collection<String> categoryNames) {
+        Map<String, Category> categories = new HashMap<>();
+        List<String> unknownCategoryNames = categoryNames.stream()
+                .distinct()
+                .filter(categoryName -> {
+                    Long categoryId = categoryIds.get(categoryName);
+                    if (categoryId != null) {
+                        categories.put(categoryName, new Category(categoryId, categoryName));
+                    }
+
+                    return categoryId == null;
+                })
+                .toList();
+
+        if (unknownCategoryNames.isEmpty()) {
+            return categories;
+        }
+
+        categoryRepository.insertCategoriesIfAbsent(unknownCategoryNames.toArray(String[]::new))
+                .forEach(category -> putCategory(categories, category));
+        List<String> existingCategoryNames = unknownCategoryNames.stream()
+                .filter(categoryName -> !categories.containsKey(categoryName))
+                .toList();
+        if (!existingCategoryNames.isEmpty()) {
+            categoryRepository.findCategoriesByNameIn(existingCategoryNames)
+                    .forEach(category -> putCategory(categories, category));
+        }
+        unknownCategoryNames.stream()
+                .filter(categoryName -> !categories.containsKey(categoryName))
+                .findFirst()
+                .ifPresent(categoryName -> {
+                    throw new IllegalStateException(
+                            String.format("Category '%s' was deleted while being created", categoryName));
+                });
+
+        return categories;
+    }
+
+    private void putCategory(Map<String, Category> categories, Category category) {
+        categories.put(category.getName(), new Category(category.getId(), category.getName()));
+        rememberCategoryId(category.getName(), category.getId());
+    }
+
+    private Long insertCategory(String categoryName) {
+        Long categoryId = categoryRepository.insertCategoryIfAbsent(categoryName)
+                .or(() -> categoryRepository.findCategoryByName(categoryName).map(Category::getId))
+                .orElseThrow(() -> new IllegalStateException(
+                        String.format("Category '%s' was deleted while being created", categoryName)));
+        rememberCategoryId(categoryName, categoryId);
+
+        return categoryId;
+    }
+
+    private void rememberCategoryId(String categoryName, Long categoryId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            categoryIds.put(categoryName, categoryId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                categoryIds.put(categoryName, categoryId);
+            }
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package com.allitov.booksapi.util;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class CsvUtils {
+
+    /**
+     * Returns the value as a CSV field, quoted if it contains a separator, a quote or a line break.
+     * {@code null} is returned as an empty field.
+     */
+    public String toField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
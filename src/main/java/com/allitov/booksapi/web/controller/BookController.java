@@ -1,11 +1,27 @@
 package com.allitov.booksapi.web.controller;
 
+import com.allitov.booksapi.cache.CategoryVersion;
+import com.allitov.booksapi.cache.CategoryVersionRegistry;
+import com.allitov.booksapi.cache.ResponseBodyCache;
+import com.allitov.booksapi.cache.ResponseBodyCache.CachedResponseBody;
+import com.allitov.booksapi.configuration.AppWebProperties;
 import com.allitov.booksapi.exception.ExceptionMessage;
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.service.BookExportService;
+import com.allitov.booksapi.model.service.BookFileFormat;
+import com.allitov.booksapi.model.service.BookImportService;
 import com.allitov.booksapi.model.service.BookService;
+import com.allitov.booksapi.web.dto.request.BookBatchRequest;
+import com.allitov.booksapi.web.dto.request.BookLookupRequest;
 import com.allitov.booksapi.web.dto.request.BookRequest;
+import com.allitov.booksapi.web.dto.response.BookImportResponse;
 import com.allitov.booksapi.web.dto.response.BookListResponse;
+import com.allitov.booksapi.web.dto.response.BookLookupResponse;
 import com.allitov.booksapi.web.dto.response.BookResponse;
+import com.allitov.booksapi.web.dto.response.BookSearchResponse;
 import com.allitov.booksapi.web.dto.response.ErrorResponse;
+import com.allitov.booksapi.web.converter.ResponseBodyEncoder;
+import com.allitov.booksapi.web.converter.ResponseFormat;
 import com.allitov.booksapi.web.mapper.BookMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,25 +30,115 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 @RestController
 @RequestMapping("/api/v1/book")
 @RequiredArgsConstructor
 @Validated
+@RegisterReflectionForBinding({BookResponse.class, BookListResponse.class, BookSearchResponse.class,
+        BookLookupResponse.class})
 public class BookController {
 
     private final BookService bookService;
 
+    private final BookExportService bookExportService;
+
+    private final BookImportService bookImportService;
+
     private final BookMapper bookMapper;
 
+    private final CategoryVersionRegistry categoryVersionRegistry;
+
+    private final AppWebProperties webProperties;
+
+    private final ResponseBodyCache responseBodyCache;
+
+    private final ResponseBodyEncoder responseBodyEncoder;
+
+    @Operation(
+            summary = "Get book by ID",
+            description = "Get book by ID. Returns the book with the requested ID",
+            parameters = {
+                    @Parameter(name = "id", example = "1")
+            }
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    description = "Returns status 200 and book data if everything is successful. "
+                            + "The body is JSON unless the Accept header prefers CBOR, Smile or protobuf",
+                    responseCode = "200",
+                    content = {
+                            @Content(
+                                    schema = @Schema(implementation = BookResponse.class),
+                                    mediaType = "application/json"
+                            ),
+                            @Content(
+                                    schema = @Schema(implementation = BookResponse.class),
+                                    mediaType = "application/cbor"
+                            ),
+                            @Content(
+                                    schema = @Schema(implementation = BookResponse.class),
+                                    mediaType = "application/x-jackson-smile"
+                            ),
+                            @Content(
+                                    schema = @Schema(implementation = BookResponse.class),
+                                    mediaType = "application/x-protobuf"
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    description = "Returns status 304 without body if the book did not change since the ETag "
+                            + "from the If-None-Match header or the date from the If-Modified-Since header",
+                    responseCode = "304"
+            ),
+            @ApiResponse(
+                    description = "Returns status 404 and error message if book with requested ID was not found",
+                    responseCode = "404",
+                    content = {
+                            @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = "application/json"
+                            )
+                    }
+            )
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getBookById(@PathVariable("id") Long id, WebRequest webRequest)
+            throws IOException {
+        ResponseFormat format = ResponseFormat.fromAcceptHeader(webRequest.getHeader(HttpHeaders.ACCEPT));
+        Book book = bookService.findBookById(id);
+        CategoryVersion categoryVersion = categoryVersionRegistry.getVersion(book.getCategory().getName());
+        if (webRequest.checkNotModified(format.eTag(categoryVersion), categoryVersion.lastModifiedMillis())) {
+            return notModified();
+        }
+
+        return encodedBody(format, responseBodyEncoder.encode(format, bookMapper.bookToResponse(book)));
+    }
+
     @Operation(
             summary = "Get book by name and author",
             description = "Get book by name and author. Returns a book matching the request parameters",
@@ -43,15 +149,33 @@ public class BookController {
     )
     @ApiResponses({
             @ApiResponse(
-                    description = "Returns status 200 and book data if everything is successful",
+                    description = "Returns status 200 and book data if everything is successful. "
+                            + "The body is JSON unless the Accept header prefers CBOR, Smile or protobuf",
                     responseCode = "200",
                     content = {
                             @Content(
                                     schema = @Schema(implementation = BookResponse.class),
                                     mediaType = "application/json"
+                            ),
+                            @Content(
+                                    schema = @Schema(implementation = BookResponse.class),
+                                    mediaType = "application/cbor"
+                            ),
+                            @Content(
+                                    schema = @Schema(implementation = BookResponse.class),
+                                    mediaType = "application/x-jackson-smile"
+                            ),
+                            @Content(
+                                    schema = @Schema(implementation = BookResponse.class),
+                                    mediaType = "application/x-protobuf"
                             )
                     }
             ),
+            @ApiResponse(
+                    description = "Returns status 304 without body if the book did not change since the ETag "
+                            + "from the If-None-Match header or the date from the If-Modified-Since header",
+                    responseCode = "304"
+            ),
             @ApiResponse(
                     description = "Returns status 400 and error message if request parameters have invalid values",
                     responseCode = "400",
@@ -74,40 +198,93 @@ public class BookController {
             )
     })
     @GetMapping
-    public ResponseEntity<BookResponse> getBookByNameAndAuthor(
+    public ResponseEntity<byte[]> getBookByNameAndAuthor(
             @RequestParam("name")
             @NotBlank(message = ExceptionMessage.BLANK_BOOK_NAME)
             @Size(max = 256, message = ExceptionMessage.INVALID_BOOK_NAME_LENGTH) String bookName,
             @RequestParam("author")
             @NotBlank(message = ExceptionMessage.BLANK_AUTHOR_NAME)
-            @Size(max = 256, message = ExceptionMessage.INVALID_AUTHOR_NAME_LENGTH) String authorName) {
-        return ResponseEntity.ok(
-                bookMapper.bookToResponse(
-                        bookService.findBookByNameAndAuthor(bookName, authorName)
-                )
-        );
+            @Size(max = 256, message = ExceptionMessage.INVALID_AUTHOR_NAME_LENGTH) String authorName,
+            WebRequest webRequest) throws IOException {
+        ResponseFormat format = ResponseFormat.fromAcceptHeader(webRequest.getHeader(HttpHeaders.ACCEPT));
+        String key = bookName + "-" + authorName + "-" + format.getSuffix();
+        CachedResponseBody cachedBody = responseBodyCache.get(ResponseBodyCache.BOOK_BY_NAME_AND_AUTHOR, key);
+        CategoryVersion versionBeforeLoad = null;
+        if (cachedBody != null) {
+            versionBeforeLoad = categoryVersionRegistry.getVersion(cachedBody.categoryName());
+            if (cachedBody.isCurrent(versionBeforeLoad)) {
+                if (webRequest.checkNotModified(format.eTag(versionBeforeLoad),
+                        versionBeforeLoad.lastModifiedMillis())) {
+                    return notModified();
+                }
+
+                return encodedBody(format, cachedBody.body());
+            }
+        }
+
+        Book book = bookService.findBookByNameAndAuthor(bookName, authorName);
+        CategoryVersion categoryVersion = categoryVersionRegistry.getVersion(book.getCategory().getName());
+        if (!categoryVersion.equals(versionBeforeLoad)) {
+            // The version of the category was not read before the load, because no body was cached or the book
+            // moved to another category, or it changed during the load. The book may be older than the version,
+            // so the body is not tagged with it and is cached as outdated only to record the category.
+            byte[] body = responseBodyEncoder.encode(format, bookMapper.bookToResponse(book));
+            responseBodyCache.putOutdated(ResponseBodyCache.BOOK_BY_NAME_AND_AUTHOR, key,
+                    book.getCategory().getName(), body);
+
+            return encodedBody(format, body);
+        }
+        if (webRequest.checkNotModified(format.eTag(categoryVersion), categoryVersion.lastModifiedMillis())) {
+            return notModified();
+        }
+
+        byte[] body = responseBodyEncoder.encode(format, bookMapper.bookToResponse(book));
+        responseBodyCache.put(ResponseBodyCache.BOOK_BY_NAME_AND_AUTHOR, key, categoryVersion, body);
+
+        return encodedBody(format, body);
     }
 
     @Operation(
             summary = "Get books by category name",
-            description = "Get books by category name. Returns a list of books matching the request parameter",
+            description = "Get books by category name. Returns a page of books matching the request parameters "
+                    + "ordered by ID and the cursor of the next page",
             parameters = {
-                    @Parameter(name = "name", example = "Western")
+                    @Parameter(name = "name", example = "Western"),
+                    @Parameter(name = "cursor", example = "0", description = "ID of the last book of the previous page"),
+                    @Parameter(name = "limit", example = "50", description = "Maximum number of books in the page")
             }
     )
     @ApiResponses({
             @ApiResponse(
-                    description = "Returns status 200 and books list if everything is successful",
+                    description = "Returns status 200 and books list if everything is successful. "
+                            + "The body is JSON unless the Accept header prefers CBOR, Smile or protobuf",
                     responseCode = "200",
                     content = {
                             @Content(
                                     schema = @Schema(implementation = BookListResponse.class),
                                     mediaType = "application/json"
+                            ),
+                            @Content(
+                                    schema = @Schema(implementation = BookListResponse.class),
+                                    mediaType = "application/cbor"
+                            ),
+                            @Content(
+                                    schema = @Schema(implementation = BookListResponse.class),
+                                    mediaType = "application/x-jackson-smile"
+                            ),
+                            @Content(
+                                    schema = @Schema(implementation = BookListResponse.class),
+                                    mediaType = "application/x-protobuf"
                             )
                     }
             ),
             @ApiResponse(
-                    description = "Returns status 400 and error message if request parameter has invalid value",
+                    description = "Returns status 304 without body if the category did not change since the ETag "
+                            + "from the If-None-Match header or the date from the If-Modified-Since header",
+                    responseCode = "304"
+            ),
+            @ApiResponse(
+                    description = "Returns status 400 and error message if request parameters have invalid values",
                     responseCode = "400",
                     content = {
                             @Content(
@@ -118,15 +295,185 @@ public class BookController {
             )
     })
     @GetMapping("/category")
-    public ResponseEntity<BookListResponse> getBooksByCategoryName(
+    public ResponseEntity<byte[]> getBooksByCategoryName(
             @RequestParam("name")
             @NotBlank(message = ExceptionMessage.BLANK_CATEGORY_NAME)
-            @Size(max = 256, message = ExceptionMessage.INVALID_CATEGORY_NAME_LENGTH) String categoryName) {
-        return ResponseEntity.ok(
-                bookMapper.bookListToBookListResponse(
-                        bookService.findBooksByCategoryName(categoryName)
-                )
-        );
+            @Size(max = 256, message = ExceptionMessage.INVALID_CATEGORY_NAME_LENGTH) String categoryName,
+            @RequestParam(value = "cursor", defaultValue = "0")
+            @PositiveOrZero(message = ExceptionMessage.INVALID_CURSOR) Long cursor,
+            @RequestParam(value = "limit", defaultValue = "50")
+            @Min(value = 1, message = ExceptionMessage.INVALID_PAGE_LIMIT)
+            @Max(value = 1000, message = ExceptionMessage.INVALID_PAGE_LIMIT) int limit,
+            WebRequest webRequest) throws IOException {
+        ResponseFormat format = ResponseFormat.fromAcceptHeader(webRequest.getHeader(HttpHeaders.ACCEPT));
+        CategoryVersion categoryVersion = categoryVersionRegistry.getVersion(categoryName);
+        if (webRequest.checkNotModified(format.eTag(categoryVersion), categoryVersion.lastModifiedMillis())) {
+            return notModified();
+        }
+
+        String key = categoryName + "-" + cursor + "-" + limit + "-" + format.getSuffix();
+        CachedResponseBody cachedBody = responseBodyCache.get(ResponseBodyCache.BOOKS_BY_CATEGORY_NAME, key);
+        if (cachedBody != null && cachedBody.isCurrent(categoryVersion)) {
+            return encodedBody(format, cachedBody.body());
+        }
+
+        byte[] body = responseBodyEncoder.encode(format, bookMapper.responseListToBookListResponse(
+                bookService.findBooksByCategoryName(categoryName, cursor, limit),
+                limit
+        ));
+        responseBodyCache.put(ResponseBodyCache.BOOKS_BY_CATEGORY_NAME, key, categoryVersion, body);
+
+        return encodedBody(format, body);
+    }
+
+    @Operation(
+            summary = "Get books by IDs or by names and authors",
+            description = "Get up to 1000 books at once by their IDs or by their names and authors. "
+                    + "Returns the books in the order of the request, null for the ones that were not found"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    description = "Returns status 200 and books list if everything is successful",
+                    responseCode = "200",
+                    content = {
+                            @Content(
+                                    schema = @Schema(implementation = BookLookupResponse.class),
+                                    mediaType = "application/json"
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    description = "Returns status 400 and error message if request has invalid values",
+                    responseCode = "400",
+                    content = {
+                            @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = "application/json"
+                            )
+                    }
+            )
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<BookLookupResponse> lookupBooks(@Valid @RequestBody BookLookupRequest request) {
+        return ResponseEntity.ok(bookMapper.responseListToBookLookupResponse(
+                request.getIds() == null || request.getIds().isEmpty()
+                        ? bookService.findBooksByKeys(bookMapper.lookupRequestToBookKeys(request))
+                        : bookService.findBooksByIds(request.getIds())
+        ));
+    }
+
+    @Operation(
+            summary = "Search books",
+            description = "Search books by name and author. Returns a page of books whose name or author "
+                    + "is similar to the query, the most similar first, and the number of the next page",
+            parameters = {
+                    @Parameter(name = "q", example = "lost univ"),
+                    @Parameter(name = "page", example = "0", description = "Number of the page, starting from 0"),
+                    @Parameter(name = "size", example = "20", description = "Maximum number of books in the page")
+            }
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    description = "Returns status 200 and books list if everything is successful",
+                    responseCode = "200",
+                    content = {
+                            @Content(
+                                    schema = @Schema(implementation = BookSearchResponse.class),
+                                    mediaType = "application/json"
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    description = "Returns status 400 and error message if request parameters have invalid values",
+                    responseCode = "400",
+                    content = {
+                            @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = "application/json"
+                            )
+                    }
+            )
+    })
+    @GetMapping("/search")
+    public ResponseEntity<byte[]> searchBooks(
+            @RequestParam("q")
+            @NotBlank(message = ExceptionMessage.BLANK_SEARCH_QUERY)
+            @Size(min = 3, max = 256, message = ExceptionMessage.INVALID_SEARCH_QUERY_LENGTH) String query,
+            @RequestParam(value = "page", defaultValue = "0")
+            @PositiveOrZero(message = ExceptionMessage.INVALID_SEARCH_PAGE)
+            @Max(value = 100, message = ExceptionMessage.INVALID_SEARCH_PAGE) int page,
+            @RequestParam(value = "size", defaultValue = "20")
+            @Min(value = 1, message = ExceptionMessage.INVALID_SEARCH_PAGE_SIZE)
+            @Max(value = 100, message = ExceptionMessage.INVALID_SEARCH_PAGE_SIZE) int size)
+            throws IOException {
+        String key = query.strip().toLowerCase().replaceAll("\\s+", " ") + "-" + page + "-" + size;
+        CachedResponseBody cachedBody = responseBodyCache.get(ResponseBodyCache.BOOK_SEARCH, key);
+        if (cachedBody != null) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(cachedBody.body());
+        }
+
+        byte[] body = responseBodyEncoder.encode(ResponseFormat.JSON, bookMapper.responseListToBookSearchResponse(
+                bookService.searchBooks(query, page, size),
+                page,
+                size
+        ));
+        responseBodyCache.put(ResponseBodyCache.BOOK_SEARCH, key, null, body);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Export books",
+            description = "Export all books as newline-delimited JSON or CSV ordered by ID. "
+                    + "The response is streamed while the books are read from the database",
+            parameters = {
+                    @Parameter(name = "format", example = "ndjson", description = "'ndjson' or 'csv'")
+            }
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    description = "Returns status 200 and the books file if everything is successful",
+                    responseCode = "200",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv")
+                    }
+            ),
+            @ApiResponse(
+                    description = "Returns status 400 and error message if request parameters have invalid values",
+                    responseCode = "400",
+                    content = {
+                            @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = "application/json"
+                            )
+                    }
+            )
+    })
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportBooks(
+            @RequestParam(value = "format", defaultValue = "ndjson")
+            @Pattern(regexp = "(?i)ndjson|csv", message = ExceptionMessage.INVALID_FILE_FORMAT) String format,
+            HttpServletResponse response) {
+        BookFileFormat fileFormat = BookFileFormat.fromName(format);
+        response.setContentType(fileFormat.getMediaType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("books." + fileFormat.getFileExtension())
+                .build()
+                .toString());
+
+        // Only the export gets the long timeout, other async requests keep the default one.
+        return new WebAsyncTask<>(webProperties.getExportTimeout().toMillis(), () -> {
+            OutputStream outputStream = response.getOutputStream();
+            bookExportService.exportBooks(fileFormat, outputStream);
+            outputStream.flush();
+
+            return null;
+        });
     }
 
     @Operation(
@@ -163,6 +510,84 @@ public class BookController {
         ).build();
     }
 
+    @Operation(
+            summary = "Create books",
+            description = "Create books in a single transaction. Returns created books"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    description = "Returns status 201 and created books if everything is successful",
+                    responseCode = "201",
+                    content = {
+                            @Content(
+                                    schema = @Schema(implementation = BookListResponse.class),
+                                    mediaType = "application/json"
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    description = "Returns status 400 and error message if request has invalid values",
+                    responseCode = "400",
+                    content = {
+                            @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = "application/json"
+                            )
+                    }
+            )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BookListResponse> createBooks(@Valid @RequestBody BookBatchRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                bookMapper.bookListToBookListResponse(
+                        bookService.createBooks(bookMapper.batchRequestToBookList(request))
+                )
+        );
+    }
+
+    @Operation(
+            summary = "Import books",
+            description = "Import books from newline-delimited JSON or CSV in a single transaction. "
+                    + "The CSV file must start with a header of the columns name, author, categoryName, "
+                    + "publicationDate and optionally id, which is ignored. Returns the number of created books "
+                    + "and the names of their categories",
+            parameters = {
+                    @Parameter(name = "format", example = "csv", description = "'ndjson' or 'csv'")
+            }
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    description = "Returns status 201 and the import result if everything is successful",
+                    responseCode = "201",
+                    content = {
+                            @Content(
+                                    schema = @Schema(implementation = BookImportResponse.class),
+                                    mediaType = "application/json"
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    description = "Returns status 400 and error message if the file or request parameters "
+                            + "have invalid values. No books are created in this case",
+                    responseCode = "400",
+                    content = {
+                            @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = "application/json"
+                            )
+                    }
+            )
+    })
+    @PostMapping("/import")
+    public ResponseEntity<BookImportResponse> importBooks(
+            @RequestParam(value = "format", defaultValue = "ndjson")
+            @Pattern(regexp = "(?i)ndjson|csv", message = ExceptionMessage.INVALID_FILE_FORMAT) String format,
+            InputStream body) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                bookMapper.importResultToResponse(bookImportService.importBooks(BookFileFormat.fromName(format), body))
+        );
+    }
+
     @Operation(
             summary = "Update book by ID",
             description = "Update book by ID. Returns status 'no content'",
@@ -223,4 +648,19 @@ public class BookController {
 
         return ResponseEntity.noContent().build();
     }
+
+    private ResponseEntity<byte[]> encodedBody(ResponseFormat format, byte[] body) {
+        return ResponseEntity.ok()
+                .cacheControl(webProperties.getCacheControl().toCacheControl())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .body(body);
+    }
+
+    private <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(webProperties.getCacheControl().toCacheControl())
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
 }
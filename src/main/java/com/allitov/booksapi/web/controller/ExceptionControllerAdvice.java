@@ -1,5 +1,6 @@
 package com.allitov.booksapi.web.controller;
 
+import com.allitov.booksapi.exception.InvalidImportException;
 import com.allitov.booksapi.web.dto.response.ErrorResponse;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolation;
@@ -57,4 +58,9 @@ public class ExceptionControllerAdvice {
             HttpMessageNotReadableException e) {
         return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
     }
+
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<ErrorResponse> exceptionInvalidImportHandler(InvalidImportException e) {
+        return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+    }
 }
@@ -0,0 +1,37 @@
+package com.allitov.booksapi.web.converter;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes {@code application/x-protobuf} bodies with {@link ResponseBodyEncoder}, so responses
+ * that are not encoded by the controller, like error responses, are available in protobuf too.
+ */
+public class JacksonProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final ResponseBodyEncoder responseBodyEncoder;
+
+    public JacksonProtobufHttpMessageConverter(ResponseBodyEncoder responseBodyEncoder) {
+        super(MediaType.parseMediaType(ResponseFormat.PROTOBUF.getMediaType()));
+        this.responseBodyEncoder = responseBodyEncoder;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return !byte[].class.equals(clazz) && !String.class.equals(clazz);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return responseBodyEncoder.decode(ResponseFormat.PROTOBUF, inputMessage.getBody().readAllBytes(), clazz);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(responseBodyEncoder.encode(ResponseFormat.PROTOBUF, body));
+    }
+}
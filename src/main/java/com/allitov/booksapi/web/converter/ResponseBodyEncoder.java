@@ -0,0 +1,75 @@
+package com.allitov.booksapi.web.converter;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schemagen.ProtobufSchemaGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.NonNull;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes and decodes response bodies in every {@link ResponseFormat}.
+ * <p>
+ * All formats are written by Jackson with the configuration of the application object mapper, so they
+ * carry the same fields. Protobuf schemas are generated from the classes on first use; the field
+ * numbers follow the property order of the class.
+ */
+@Component
+public class ResponseBodyEncoder {
+
+    private final Map<ResponseFormat, ObjectMapper> objectMappers = new EnumMap<>(ResponseFormat.class);
+
+    private final Map<Class<?>, ProtobufSchema> protobufSchemas = new ConcurrentHashMap<>();
+
+    public ResponseBodyEncoder(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        objectMappers.put(ResponseFormat.JSON, objectMapper);
+        objectMappers.put(ResponseFormat.CBOR, objectMapperBuilder.factory(new CBORFactory()).build());
+        objectMappers.put(ResponseFormat.SMILE, objectMapperBuilder.factory(new SmileFactory()).build());
+        // protobuf has no schema for dates written as arrays of numbers
+        objectMappers.put(ResponseFormat.PROTOBUF, objectMapperBuilder.factory(new ProtobufFactory())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    }
+
+    public byte[] encode(@NonNull ResponseFormat format, @NonNull Object body) throws IOException {
+        ObjectMapper objectMapper = objectMappers.get(format);
+        if (format == ResponseFormat.PROTOBUF) {
+            return objectMapper.writer(protobufSchemaOf(body.getClass())).writeValueAsBytes(body);
+        }
+
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    public <T> T decode(@NonNull ResponseFormat format, @NonNull byte[] body, @NonNull Class<T> type)
+            throws IOException {
+        ObjectMapper objectMapper = objectMappers.get(format);
+        if (format == ResponseFormat.PROTOBUF) {
+            return objectMapper.readerFor(type).with(protobufSchemaOf(type)).readValue(body);
+        }
+
+        return objectMapper.readValue(body, type);
+    }
+
+    private ProtobufSchema protobufSchemaOf(Class<?> type) {
+        return protobufSchemas.computeIfAbsent(type, key -> {
+            ProtobufSchemaGenerator schemaGenerator = new ProtobufSchemaGenerator();
+            try {
+                objectMappers.get(ResponseFormat.PROTOBUF).acceptJsonFormatVisitor(key, schemaGenerator);
+                return schemaGenerator.getGeneratedSchema();
+            } catch (JsonMappingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
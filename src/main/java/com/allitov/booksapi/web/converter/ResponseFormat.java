@@ -0,0 +1,65 @@
+package com.allitov.booksapi.web.converter;
+
+import com.allitov.booksapi.cache.CategoryVersion;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Encodings of the book responses, selected by the {@code Accept} header of the request.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ResponseFormat {
+
+    JSON("application/json", "json"),
+    CBOR("application/cbor", "cbor"),
+    SMILE("application/x-jackson-smile", "smile"),
+    PROTOBUF("application/x-protobuf", "protobuf");
+
+    private final String mediaType;
+
+    private final String suffix;
+
+    /**
+     * Returns the format of the most preferred media type of the header, or {@link #JSON} if the header
+     * is missing, invalid or accepts none of the formats.
+     */
+    public static ResponseFormat fromAcceptHeader(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+
+        List<MediaType> acceptedMediaTypes;
+        try {
+            acceptedMediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+
+        acceptedMediaTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType acceptedMediaType : acceptedMediaTypes) {
+            for (ResponseFormat format : values()) {
+                if (acceptedMediaType.includes(MediaType.parseMediaType(format.mediaType))) {
+                    return format;
+                }
+            }
+        }
+
+        return JSON;
+    }
+
+    /**
+     * Returns the entity tag of the category version for this format, so every format of a response
+     * has its own validator.
+     */
+    public String eTag(CategoryVersion categoryVersion) {
+        String eTag = categoryVersion.eTag();
+
+        return this == JSON ? eTag : eTag.substring(0, eTag.length() - 1) + "-" + suffix + "\"";
+    }
+}
@@ -0,0 +1,25 @@
+package com.allitov.booksapi.web.dto.request;
+
+import com.allitov.booksapi.exception.ExceptionMessage;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookBatchRequest {
+
+    @Valid
+    @NotEmpty(message = ExceptionMessage.EMPTY_BOOK_BATCH)
+    @Size(max = 1000, message = ExceptionMessage.INVALID_BOOK_BATCH_SIZE)
+    private List<BookRequest> books = new ArrayList<>();
+}
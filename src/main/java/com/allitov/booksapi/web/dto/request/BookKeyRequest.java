@@ -0,0 +1,27 @@
+package com.allitov.booksapi.web.dto.request;
+
+import com.allitov.booksapi.exception.ExceptionMessage;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookKeyRequest {
+
+    @NotBlank(message = ExceptionMessage.BLANK_BOOK_NAME)
+    @Size(max = 256, message = ExceptionMessage.INVALID_BOOK_NAME_LENGTH)
+    @Schema(example = "Book Name", maxLength = 256)
+    private String name;
+
+    @NotBlank(message = ExceptionMessage.BLANK_AUTHOR_NAME)
+    @Size(max = 256, message = ExceptionMessage.INVALID_AUTHOR_NAME_LENGTH)
+    @Schema(example = "Author Name", maxLength = 256)
+    private String author;
+}
@@ -0,0 +1,38 @@
+package com.allitov.booksapi.web.dto.request;
+
+import com.allitov.booksapi.exception.ExceptionMessage;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookLookupRequest {
+
+    @Size(max = 1000, message = ExceptionMessage.INVALID_BOOK_LOOKUP_SIZE)
+    @Schema(example = "[1, 2, 3]", description = "IDs of the books. Either ids or books must be specified")
+    private List<@NotNull(message = ExceptionMessage.BLANK_BOOK_ID) Long> ids = new ArrayList<>();
+
+    @Valid
+    @Size(max = 1000, message = ExceptionMessage.INVALID_BOOK_LOOKUP_SIZE)
+    @Schema(description = "Names and authors of the books. Either ids or books must be specified")
+    private List<BookKeyRequest> books = new ArrayList<>();
+
+    @JsonIgnore
+    @AssertTrue(message = ExceptionMessage.INVALID_BOOK_LOOKUP)
+    public boolean isIdsOrBooks() {
+        return (ids == null || ids.isEmpty()) != (books == null || books.isEmpty());
+    }
+}
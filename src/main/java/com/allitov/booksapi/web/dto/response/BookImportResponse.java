@@ -0,0 +1,23 @@
+package com.allitov.booksapi.web.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookImportResponse {
+
+    @Schema(example = "100000")
+    private Long importedBooks;
+
+    @Schema(example = "[\"Western\", \"Comedy\"]")
+    private List<String> categoryNames = new ArrayList<>();
+}
@@ -1,5 +1,8 @@
 package com.allitov.booksapi.web.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,7 +15,12 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@JsonPropertyOrder({"books", "nextCursor"})
 public class BookListResponse {
 
     private List<BookResponse> books = new ArrayList<>();
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(example = "42", description = "Cursor of the next page. Absent on the last page")
+    private Long nextCursor;
 }
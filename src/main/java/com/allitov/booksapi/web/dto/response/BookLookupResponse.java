@@ -0,0 +1,20 @@
+package com.allitov.booksapi.web.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookLookupResponse {
+
+    @Schema(description = "Books in the order of the request, null for the ones that were not found")
+    private List<BookResponse> books = new ArrayList<>();
+}
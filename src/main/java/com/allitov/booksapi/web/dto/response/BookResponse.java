@@ -1,18 +1,21 @@
 package com.allitov.booksapi.web.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-public class BookResponse {
+@JsonPropertyOrder({"id", "name", "author", "categoryName", "publicationDate"})
+public class BookResponse implements Serializable {
 
     @Schema(example = "1")
     private Long id;
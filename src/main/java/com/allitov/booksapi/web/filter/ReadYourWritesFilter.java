@@ -0,0 +1,82 @@
+package com.allitov.booksapi.web.filter;
+
+import com.allitov.booksapi.datasource.ReplicaRoutingContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Sends the reads of a client to the primary database for a while after the client has written,
+ * so it sees its own writes even if the read replicas have not replayed them yet.
+ * <p>
+ * Every non-GET request except the POST lookups, which only read, sets a cookie with the time of the write;
+ * requests carrying a cookie younger than the window require the primary.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String LAST_WRITE_COOKIE = "lastWrite";
+
+    private static final Set<String> READ_METHODS = Set.of(
+            HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private static final Set<String> READ_POST_PATHS = Set.of("/api/v1/book/lookup");
+
+    private final Duration window;
+
+    private final Clock clock;
+
+    public ReadYourWritesFilter(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = clock.millis();
+        if (!isRead(request)) {
+            Cookie cookie = new Cookie(LAST_WRITE_COOKIE, String.valueOf(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.ceil(window.toMillis() / 1000.0));
+            response.addCookie(cookie);
+            ReplicaRoutingContext.requirePrimary();
+        } else if (isRecentWrite(request, now)) {
+            ReplicaRoutingContext.requirePrimary();
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingContext.clear();
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return READ_METHODS.contains(request.getMethod())
+                || HttpMethod.POST.matches(request.getMethod()) && READ_POST_PATHS.contains(request.getRequestURI());
+    }
+
+    private boolean isRecentWrite(HttpServletRequest request, long now) {
+        Cookie cookie = WebUtils.getCookie(request, LAST_WRITE_COOKIE);
+        if (cookie == null) {
+            return false;
+        }
+
+        try {
+            return now - Long.parseLong(cookie.getValue()) < window.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
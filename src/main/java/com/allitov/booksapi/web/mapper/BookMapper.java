@@ -1,10 +1,17 @@
 package com.allitov.booksapi.web.mapper;
 
 import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.BookImportResult;
+import com.allitov.booksapi.model.data.BookKey;
 import com.allitov.booksapi.model.data.Category;
+import com.allitov.booksapi.web.dto.request.BookBatchRequest;
+import com.allitov.booksapi.web.dto.request.BookLookupRequest;
 import com.allitov.booksapi.web.dto.request.BookRequest;
+import com.allitov.booksapi.web.dto.response.BookImportResponse;
 import com.allitov.booksapi.web.dto.response.BookListResponse;
+import com.allitov.booksapi.web.dto.response.BookLookupResponse;
 import com.allitov.booksapi.web.dto.response.BookResponse;
+import com.allitov.booksapi.web.dto.response.BookSearchResponse;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -34,6 +41,24 @@ public class BookMapper {
         return book;
     }
 
+    public List<Book> batchRequestToBookList(BookBatchRequest request) {
+        if (request == null) {
+            return null;
+        }
+
+        return request.getBooks().stream().map(this::requestToBook).toList();
+    }
+
+    public List<BookKey> lookupRequestToBookKeys(BookLookupRequest request) {
+        if (request == null || request.getBooks() == null) {
+            return null;
+        }
+
+        return request.getBooks().stream()
+                .map(book -> new BookKey(book.getName(), book.getAuthor()))
+                .toList();
+    }
+
     public BookResponse bookToResponse(Book book) {
         if (book == null) {
             return null;
@@ -57,6 +82,45 @@ public class BookMapper {
         return response;
     }
 
+    public BookListResponse responseListToBookListResponse(List<BookResponse> books, int limit) {
+        BookListResponse response = new BookListResponse();
+        response.setBooks(books);
+        if (books != null && books.size() == limit) {
+            response.setNextCursor(books.getLast().getId());
+        }
+
+        return response;
+    }
+
+    public BookLookupResponse responseListToBookLookupResponse(List<BookResponse> books) {
+        BookLookupResponse response = new BookLookupResponse();
+        response.setBooks(books);
+
+        return response;
+    }
+
+    public BookSearchResponse responseListToBookSearchResponse(List<BookResponse> books, int page, int size) {
+        BookSearchResponse response = new BookSearchResponse();
+        response.setBooks(books);
+        if (books != null && books.size() == size) {
+            response.setNextPage(page + 1);
+        }
+
+        return response;
+    }
+
+    public BookImportResponse importResultToResponse(BookImportResult result) {
+        if (result == null) {
+            return null;
+        }
+
+        BookImportResponse response = new BookImportResponse();
+        response.setImportedBooks(result.importedBooks());
+        response.setCategoryNames(result.categoryNames());
+
+        return response;
+    }
+
     private List<BookResponse> bookListToResponseList(List<Book> books) {
         if (books == null) {
             return null;
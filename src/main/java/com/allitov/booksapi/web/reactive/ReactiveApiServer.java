@@ -0,0 +1,42 @@
+package com.allitov.booksapi.web.reactive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+
+/**
+ * Reactor Netty server of the reactive API, running on its own port next to the servlet container.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveApiServer implements SmartLifecycle {
+
+    private final HttpHandler httpHandler;
+
+    private final int port;
+
+    private volatile WebServer webServer;
+
+    @Override
+    public void start() {
+        webServer = new NettyReactiveWebServerFactory(port).getWebServer(httpHandler);
+        webServer.start();
+        log.info("Reactive API started on port {}", webServer.getPort());
+    }
+
+    @Override
+    public void stop() {
+        if (webServer != null) {
+            webServer.stop();
+            webServer = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return webServer != null;
+    }
+}
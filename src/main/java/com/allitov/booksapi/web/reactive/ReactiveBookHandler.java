@@ -0,0 +1,135 @@
+package com.allitov.booksapi.web.reactive;
+
+import com.allitov.booksapi.cache.ReactiveCacheClient;
+import com.allitov.booksapi.exception.ExceptionMessage;
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.repository.ReactiveBookRepository;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import com.allitov.booksapi.web.dto.response.ErrorResponse;
+import com.allitov.booksapi.web.mapper.BookMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Handlers of the reactive read API, which mirrors the book lookups of the blocking API.
+ * <p>
+ * A category page is returned as a {@code BookListResponse} by default and streamed straight
+ * from the database as newline-delimited JSON if the client accepts {@code application/x-ndjson}.
+ * Books that are not found are not cached, as the book filter, which decides what the blocking API
+ * evicts when books are created, is not consulted here.
+ */
+@RequiredArgsConstructor
+public class ReactiveBookHandler {
+
+    private static final String BOOK_BY_NAME_AND_AUTHOR_CACHE = "bookByNameAndAuthor";
+
+    private static final String BOOKS_BY_CATEGORY_NAME_CACHE = "booksByCategoryName";
+
+    private static final int MAX_NAME_LENGTH = 256;
+
+    private static final int MAX_PAGE_LIMIT = 1000;
+
+    private final ReactiveBookRepository bookRepository;
+
+    private final ReactiveCacheClient cacheClient;
+
+    private final BookMapper bookMapper;
+
+    public Mono<ServerResponse> getBookByNameAndAuthor(ServerRequest request) {
+        String bookName = request.queryParam("name").orElse("");
+        String author = request.queryParam("author").orElse("");
+        String error = validateName(bookName, ExceptionMessage.BLANK_BOOK_NAME,
+                ExceptionMessage.INVALID_BOOK_NAME_LENGTH);
+        if (error == null) {
+            error = validateName(author, ExceptionMessage.BLANK_AUTHOR_NAME,
+                    ExceptionMessage.INVALID_AUTHOR_NAME_LENGTH);
+        }
+        if (error != null) {
+            return errorResponse(HttpStatus.BAD_REQUEST, error);
+        }
+
+        String key = bookName + "-" + author;
+
+        return cacheClient.get(BOOK_BY_NAME_AND_AUTHOR_CACHE, key)
+                .switchIfEmpty(Mono.defer(() -> bookRepository.findFirstBookByNameAndAuthorOrderByIdAsc(bookName, author)
+                        .flatMap(book -> cacheClient.put(BOOK_BY_NAME_AND_AUTHOR_CACHE, key, book)
+                                .thenReturn((Cache.ValueWrapper) new SimpleValueWrapper(book)))
+                        .defaultIfEmpty(new SimpleValueWrapper(null))))
+                .flatMap(book -> book.get() == null
+                        ? errorResponse(HttpStatus.NOT_FOUND, String.format(
+                                ExceptionMessage.BOOK_BY_NAME_AND_AUTHOR_NOT_FOUND, bookName, author))
+                        : ServerResponse.ok()
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(bookMapper.bookToResponse((Book) book.get())));
+    }
+
+    @SuppressWarnings("unchecked")
+    public Mono<ServerResponse> getBooksByCategoryName(ServerRequest request) {
+        String categoryName = request.queryParam("name").orElse("");
+        String error = validateName(categoryName, ExceptionMessage.BLANK_CATEGORY_NAME,
+                ExceptionMessage.INVALID_CATEGORY_NAME_LENGTH);
+        if (error != null) {
+            return errorResponse(HttpStatus.BAD_REQUEST, error);
+        }
+
+        long cursor;
+        int limit;
+        try {
+            cursor = Long.parseLong(request.queryParam("cursor").orElse("0"));
+            limit = Integer.parseInt(request.queryParam("limit").orElse("50"));
+        } catch (NumberFormatException e) {
+            return errorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (cursor < 0) {
+            return errorResponse(HttpStatus.BAD_REQUEST, ExceptionMessage.INVALID_CURSOR);
+        }
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            return errorResponse(HttpStatus.BAD_REQUEST, ExceptionMessage.INVALID_PAGE_LIMIT);
+        }
+
+        if (request.headers().accept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype)) {
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(bookRepository.findBookResponsesByCategoryName(categoryName, cursor, limit),
+                            BookResponse.class);
+        }
+
+        return cacheClient.currentVersion(categoryName)
+                .map(version -> categoryName + "-" + version + "-" + cursor + "-" + limit)
+                .flatMap(key -> cacheClient.get(BOOKS_BY_CATEGORY_NAME_CACHE, key)
+                        .map(books -> (List<BookResponse>) books.get())
+                        .switchIfEmpty(Mono.defer(() -> bookRepository
+                                .findBookResponsesByCategoryName(categoryName, cursor, limit)
+                                .collectList()
+                                .flatMap(books -> cacheClient.put(BOOKS_BY_CATEGORY_NAME_CACHE, key, books)
+                                        .thenReturn(books)))))
+                .flatMap(books -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(bookMapper.responseListToBookListResponse(books, limit)));
+    }
+
+    private static String validateName(String value, String blankMessage, String lengthMessage) {
+        if (value.isBlank()) {
+            return blankMessage;
+        }
+        if (value.length() > MAX_NAME_LENGTH) {
+            return lengthMessage.replace("{max}", String.valueOf(MAX_NAME_LENGTH));
+        }
+
+        return null;
+    }
+
+    private static Mono<ServerResponse> errorResponse(HttpStatus status, String message) {
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ErrorResponse(message));
+    }
+}
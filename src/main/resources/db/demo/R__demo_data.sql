@@ -0,0 +1,19 @@
+insert into categories (name) values ('Thriller') on conflict (name) do nothing;
+insert into categories (name) values ('Horror') on conflict (name) do nothing;
+insert into categories (name) values ('Comedy') on conflict (name) do nothing;
+insert into categories (name) values ('Children') on conflict (name) do nothing;
+insert into categories (name) values ('Western') on conflict (name) do nothing;
+
+insert into books (name, author, category_id, publication_date)
+select demo.name, demo.author, categories.id, demo.publication_date
+from (values
+    ('Song of the Bloodred Flower (Laulu tulipunaisesta kukasta)', 'Nels Lamerton', 'Thriller', date '2012-06-20'),
+    ('Pin...', 'Oralle Tarbin', 'Comedy', date '2005-05-25'),
+    ('1612: Khroniki smutnogo vremeni', 'Adlai Leader', 'Western', date '2008-10-07'),
+    ('Travelling Players, The (O thiasos)', 'Adelheid Goscomb', 'Children', date '2007-04-28'),
+    ('Prisoners of the Lost Universe', 'Sisile Erricker', 'Children', date '2009-12-06')
+) as demo (name, author, category_name, publication_date)
+join categories on categories.name = demo.category_name
+where not exists (
+    select 1 from books where books.name = demo.name and books.author = demo.author
+);
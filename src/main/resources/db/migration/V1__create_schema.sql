@@ -1,5 +1,3 @@
-CREATE SCHEMA IF NOT EXISTS books_api_schema;
-
 CREATE TABLE IF NOT EXISTS books_api_schema.categories (
     id BIGSERIAL PRIMARY KEY,
     name VARCHAR(256) NOT NULL UNIQUE
@@ -12,4 +10,6 @@ CREATE TABLE IF NOT EXISTS books_api_schema.books (
     category_id BIGINT NOT NULL,
     publication_date DATE NOT NULL,
     FOREIGN KEY (category_id) REFERENCES books_api_schema.categories(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+ALTER SEQUENCE books_api_schema.books_id_seq INCREMENT BY 50;
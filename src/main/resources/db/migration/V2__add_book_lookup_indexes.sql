@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS books_name_author_idx ON books_api_schema.books (name, author);
+
+CREATE INDEX IF NOT EXISTS books_category_id_id_idx ON books_api_schema.books (category_id, id);
@@ -0,0 +1,4 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS books_name_author_trgm_idx
+    ON books_api_schema.books USING GIN ((name || ' ' || author) gin_trgm_ops);
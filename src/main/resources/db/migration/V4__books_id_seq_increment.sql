@@ -0,0 +1 @@
+ALTER SEQUENCE books_api_schema.books_id_seq INCREMENT BY 50;
@@ -0,0 +1,133 @@
+package com.allitov.booksapi.cache;
+
+import com.allitov.booksapi.configuration.AppCacheProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+public class AfterCommitCacheInvalidatorTests {
+
+    private final CacheManager cacheManager = Mockito.mock(CacheManager.class);
+
+    private final CategoryVersionRegistry categoryVersionRegistry = Mockito.mock(CategoryVersionRegistry.class);
+
+    private final Cache cache = new ConcurrentMapCache("bookByNameAndAuthor");
+
+    @AfterEach
+    public void afterEach() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void whenTransactionActive_thenInvalidateOnlyAfterCommit() {
+        AfterCommitCacheInvalidator invalidator = createInvalidator(Duration.ZERO);
+        Mockito.when(cacheManager.getCache("bookByNameAndAuthor")).thenReturn(cache);
+        cache.put("Book Name-Author Name", "old");
+        TransactionSynchronizationManager.initSynchronization();
+
+        invalidator.evictAfterCommit("bookByNameAndAuthor", List.of("Book Name-Author Name"));
+        invalidator.incrementVersionsAfterCommit(List.of("Category Name"));
+
+        Assertions.assertNotNull(cache.get("Book Name-Author Name"));
+        Mockito.verifyNoInteractions(categoryVersionRegistry);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        Assertions.assertNull(cache.get("Book Name-Author Name"));
+        Mockito.verify(categoryVersionRegistry, Mockito.times(1))
+                .incrementVersions(List.of("Category Name"));
+    }
+
+    @Test
+    public void whenPutAfterCommit_thenPutOnlyAfterCommit() {
+        AfterCommitCacheInvalidator invalidator = createInvalidator(Duration.ZERO);
+        Mockito.when(cacheManager.getCache("bookByNameAndAuthor")).thenReturn(cache);
+        cache.put("Book Name-Author Name", "old");
+        TransactionSynchronizationManager.initSynchronization();
+
+        invalidator.putAfterCommit("bookByNameAndAuthor", "Book Name-Author Name", "new");
+
+        Assertions.assertEquals("old", cache.get("Book Name-Author Name", String.class));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        Assertions.assertEquals("new", cache.get("Book Name-Author Name", String.class));
+    }
+
+    @Test
+    public void whenTransactionRolledBack_thenDoNotInvalidate() {
+        AfterCommitCacheInvalidator invalidator = createInvalidator(Duration.ZERO);
+        TransactionSynchronizationManager.initSynchronization();
+
+        invalidator.incrementVersionsAfterCommit(List.of("Category Name"));
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        Mockito.verifyNoInteractions(categoryVersionRegistry);
+    }
+
+    @Test
+    public void whenSecondInvalidationDelaySet_thenEvictAgainAfterDelay() {
+        AfterCommitCacheInvalidator invalidator = createInvalidator(Duration.ofMillis(50));
+        Mockito.when(cacheManager.getCache("bookByNameAndAuthor")).thenReturn(cache);
+
+        invalidator.evictAfterCommit("bookByNameAndAuthor", List.of("Book Name-Author Name"));
+        cache.put("Book Name-Author Name", "stale");
+
+        Mockito.verify(cacheManager, Mockito.timeout(1000).times(2))
+                .getCache("bookByNameAndAuthor");
+        Assertions.assertNull(cache.get("Book Name-Author Name"));
+
+        invalidator.shutdown();
+    }
+
+    @Test
+    public void whenSecondInvalidationDelaySet_thenIncrementVersionsOnce() {
+        AfterCommitCacheInvalidator invalidator = createInvalidator(Duration.ofMillis(50));
+        Mockito.when(cacheManager.getCache("bookByNameAndAuthor")).thenReturn(cache);
+
+        invalidator.incrementVersionsAfterCommit(List.of("Category Name"));
+        invalidator.evictAfterCommit("bookByNameAndAuthor", List.of("Book Name-Author Name"));
+
+        Mockito.verify(cacheManager, Mockito.timeout(1000).times(2))
+                .getCache("bookByNameAndAuthor");
+        Mockito.verify(categoryVersionRegistry, Mockito.times(1))
+                .incrementVersions(List.of("Category Name"));
+
+        invalidator.shutdown();
+    }
+
+    @Test
+    public void whenSecondInvalidationDelaySet_thenEvictPutEntryAfterDelay() {
+        AfterCommitCacheInvalidator invalidator = createInvalidator(Duration.ofMillis(50));
+        Mockito.when(cacheManager.getCache("bookByNameAndAuthor")).thenReturn(cache);
+
+        invalidator.putAfterCommit("bookByNameAndAuthor", "Book Name-Author Name", "new");
+
+        Assertions.assertEquals("new", cache.get("Book Name-Author Name", String.class));
+
+        Mockito.verify(cacheManager, Mockito.timeout(1000).times(2))
+                .getCache("bookByNameAndAuthor");
+        Assertions.assertNull(cache.get("Book Name-Author Name"));
+
+        invalidator.shutdown();
+    }
+
+    private AfterCommitCacheInvalidator createInvalidator(Duration secondInvalidationDelay) {
+        AppCacheProperties cacheProperties = new AppCacheProperties();
+        cacheProperties.setSecondInvalidationDelay(secondInvalidationDelay);
+
+        return new AfterCommitCacheInvalidator(cacheManager, categoryVersionRegistry, cacheProperties);
+    }
+}
@@ -0,0 +1,111 @@
+package com.allitov.booksapi.cache;
+
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.Category;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookRedisSerializerTests {
+
+    private final BookRedisSerializer serializer = new BookRedisSerializer();
+
+    @Test
+    public void whenSerializeBook_thenDeserializeEqualBook() {
+        Book book = createBookEntity(10L, createCategoryEntity());
+
+        Object actualBook = serializer.deserialize(serializer.serialize(book));
+
+        Assertions.assertEquals(book, actualBook, "Returned not expected book.");
+    }
+
+    @Test
+    public void whenSerializeBookWithNullFields_thenDeserializeEqualBook() {
+        Book book = Book.builder().name("Book Name").publicationDate(LocalDate.of(1, 1, 1)).build();
+
+        Object actualBook = serializer.deserialize(serializer.serialize(book));
+
+        Assertions.assertEquals(book, actualBook, "Returned not expected book.");
+    }
+
+    @Test
+    public void whenSerializeBookList_thenDeserializeEqualBookList() {
+        Category firstCategory = createCategoryEntity();
+        Category secondCategory = new Category(51L, "Другая категория");
+        List<Book> books = new ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            books.add(createBookEntity(i, i < 5 ? firstCategory : secondCategory));
+        }
+
+        Object actualBooks = serializer.deserialize(serializer.serialize(books));
+
+        Assertions.assertEquals(books, actualBooks, "Returned not expected books.");
+    }
+
+    @Test
+    public void whenSerializeBookResponse_thenDeserializeEqualBookResponse() {
+        BookResponse book = new BookResponse(10L, "Book Name", "Author Name", "Category Name",
+                LocalDate.of(1990, 1, 1));
+
+        Object actualBook = serializer.deserialize(serializer.serialize(book));
+
+        Assertions.assertEquals(book, actualBook, "Returned not expected book.");
+    }
+
+    @Test
+    public void whenSerializeBookResponseList_thenDeserializeEqualBookResponseList() {
+        List<BookResponse> books = new ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            books.add(new BookResponse(i, "Book Name", "Author Name",
+                    i < 5 ? "Category Name" : "Другая категория", LocalDate.of(1990, 1, 1)));
+        }
+
+        Object actualBooks = serializer.deserialize(serializer.serialize(books));
+
+        Assertions.assertEquals(books, actualBooks, "Returned not expected books.");
+    }
+
+    @Test
+    public void whenSerializeNullValue_thenDeserializeNullValue() {
+        Assertions.assertSame(NullValue.INSTANCE, serializer.deserialize(serializer.serialize(NullValue.INSTANCE)));
+    }
+
+    @Test
+    public void whenDeserializeJdkSerializedValue_thenReturnValue() {
+        Book book = createBookEntity(10L, createCategoryEntity());
+
+        Object actualBook = serializer.deserialize(RedisSerializer.java().serialize(book));
+
+        Assertions.assertEquals(book, actualBook, "Returned not expected book.");
+    }
+
+    @Test
+    public void whenSerializeBook_thenUseLessBytesThanJdkSerialization() {
+        Book book = createBookEntity(10L, createCategoryEntity());
+
+        Assertions.assertTrue(serializer.serialize(book).length < RedisSerializer.java().serialize(book).length);
+    }
+
+    private Book createBookEntity(Long id, Category category) {
+        return Book.builder()
+                .id(id)
+                .name("Book Name")
+                .author("Author Name")
+                .category(category)
+                .publicationDate(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+
+    private Category createCategoryEntity() {
+        return Category.builder()
+                .id(50L)
+                .name("Category Name")
+                .build();
+    }
+}
@@ -0,0 +1,158 @@
+package com.allitov.booksapi.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StampedeProtectedRedisCacheTests {
+
+    private static final String CACHE_NAME = "cache";
+
+    private final RedisCacheWriter cacheWriter = Mockito.mock(RedisCacheWriter.class);
+
+    private final StringRedisTemplate stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+
+    @Test
+    public void whenConcurrentMisses_thenLoadValueOnce() throws Exception {
+        StampedeProtectedRedisCache cache = createCache(false, 1.0, false);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get("key", () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "value";
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                Assertions.assertEquals("value", result.get());
+            }
+        }
+
+        Assertions.assertEquals(1, loads.get());
+        Mockito.verify(cacheWriter, Mockito.times(1)).put(
+                ArgumentMatchers.eq(CACHE_NAME), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any());
+    }
+
+    @Test
+    public void whenLoaderFails_thenThrowValueRetrievalException() {
+        StampedeProtectedRedisCache cache = createCache(false, 1.0, false);
+
+        Assertions.assertThrows(
+                org.springframework.cache.Cache.ValueRetrievalException.class,
+                () -> cache.get("key", () -> {
+                    throw new IllegalStateException("Loader failed");
+                })
+        );
+    }
+
+    @Test
+    public void whenLoaderThrowsError_thenFailWaitingCallers() throws Exception {
+        StampedeProtectedRedisCache cache = createCache(false, 1.0, false);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> loader = executor.submit(() -> cache.get("key", () -> {
+                loading.countDown();
+                release.await();
+                throw new LinkageError("Loader failed");
+            }));
+            loading.await();
+            Future<String> waiter = executor.submit(() -> cache.get("key", () -> "value"));
+            Thread.sleep(200);
+            release.countDown();
+
+            ExecutionException loaderException = Assertions.assertThrows(ExecutionException.class, loader::get);
+            ExecutionException waiterException = Assertions.assertThrows(ExecutionException.class,
+                    () -> waiter.get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(LinkageError.class, loaderException.getCause());
+            Assertions.assertInstanceOf(LinkageError.class, waiterException.getCause());
+        }
+    }
+
+    @Test
+    public void whenEntryCloseToExpiration_thenRefreshEarly() {
+        StampedeProtectedRedisCache cache = createCache(true, Double.MAX_VALUE, false);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("key", () -> "value-" + loads.incrementAndGet());
+        Mockito.when(cacheWriter.get(ArgumentMatchers.eq(CACHE_NAME), ArgumentMatchers.any()))
+                .thenReturn(RedisSerializer.java().serialize("value-1"));
+        String value = cache.get("key", () -> "value-" + loads.incrementAndGet());
+
+        Assertions.assertEquals("value-2", value);
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void whenEarlyRefreshDisabled_thenReturnCachedValue() {
+        StampedeProtectedRedisCache cache = createCache(false, Double.MAX_VALUE, false);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("key", () -> "value-" + loads.incrementAndGet());
+        Mockito.when(cacheWriter.get(ArgumentMatchers.eq(CACHE_NAME), ArgumentMatchers.any()))
+                .thenReturn(RedisSerializer.java().serialize("value-1"));
+        String value = cache.get("key", () -> "value-" + loads.incrementAndGet());
+
+        Assertions.assertEquals("value-1", value);
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenDistributedLockHeldByOtherNode_thenWaitForLoadedValue() {
+        StampedeProtectedRedisCache cache = createCache(false, 1.0, true);
+        ValueOperations<String, String> valueOperations = Mockito.mock(ValueOperations.class);
+        AtomicInteger loads = new AtomicInteger();
+
+        Mockito.when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(
+                ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.any(Duration.class)))
+                .thenReturn(false);
+        Mockito.when(cacheWriter.get(ArgumentMatchers.eq(CACHE_NAME), ArgumentMatchers.any()))
+                .thenReturn(null)
+                .thenReturn(RedisSerializer.java().serialize("loaded by other node"));
+
+        String value = cache.get("key", () -> "value-" + loads.incrementAndGet());
+
+        Assertions.assertEquals("loaded by other node", value);
+        Assertions.assertEquals(0, loads.get());
+    }
+
+    private StampedeProtectedRedisCache createCache(boolean earlyRefresh, double beta, boolean distributedLock) {
+        return new StampedeProtectedRedisCache(
+                CACHE_NAME,
+                cacheWriter,
+                RedisCacheConfiguration.defaultCacheConfig(),
+                stringRedisTemplate,
+                new StampedeProtection(earlyRefresh, beta, Duration.ofMinutes(1), Duration.ofSeconds(10),
+                        distributedLock, Duration.ofSeconds(10), Duration.ofSeconds(2))
+        );
+    }
+}
@@ -0,0 +1,135 @@
+package com.allitov.booksapi.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+public class TwoLevelCacheManagerTests {
+
+    private final CacheManager remoteCacheManager = Mockito.mock(CacheManager.class);
+
+    private final Cache remoteCache = Mockito.mock(Cache.class);
+
+    private final StringRedisTemplate stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+            remoteCacheManager, stringRedisTemplate, objectMapper, 100, Duration.ofMinutes(1), Duration.ofSeconds(10));
+
+    @Test
+    public void whenGetTwice_thenReadRemoteCacheOnce() {
+        String cacheName = "cache";
+        String key = "key";
+
+        Mockito.when(remoteCacheManager.getCache(cacheName)).thenReturn(remoteCache);
+        Mockito.when(remoteCache.get(key)).thenReturn(new SimpleValueWrapper("value"));
+
+        Cache cache = cacheManager.getCache(cacheName);
+
+        Assertions.assertEquals("value", cache.get(key).get());
+        Assertions.assertEquals("value", cache.get(key).get());
+
+        Mockito.verify(remoteCache, Mockito.times(1)).get(key);
+    }
+
+    @Test
+    public void whenGetNullValue_thenExpireLocalEntryAfterNullValueTtl() {
+        String cacheName = "cache";
+
+        Mockito.when(remoteCacheManager.getCache(cacheName)).thenReturn(remoteCache);
+        Mockito.when(remoteCache.get("missing")).thenReturn(new SimpleValueWrapper(null));
+        Mockito.when(remoteCache.get("present")).thenReturn(new SimpleValueWrapper("value"));
+
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache(cacheName);
+        cache.get("missing");
+        cache.get("present");
+
+        Policy.VarExpiration<String, Cache.ValueWrapper> expiration =
+                cache.getLocalCache().policy().expireVariably().orElseThrow();
+        Assertions.assertTrue(expiration.getExpiresAfter("missing").orElseThrow()
+                .compareTo(Duration.ofSeconds(10)) <= 0);
+        Assertions.assertTrue(expiration.getExpiresAfter("present").orElseThrow()
+                .compareTo(Duration.ofSeconds(10)) > 0);
+    }
+
+    @Test
+    public void whenEvict_thenEvictBothLevelsAndPublishInvalidation() throws Exception {
+        String cacheName = "cache";
+        String key = "key";
+
+        Mockito.when(remoteCacheManager.getCache(cacheName)).thenReturn(remoteCache);
+        Mockito.when(remoteCache.getName()).thenReturn(cacheName);
+        Mockito.when(remoteCache.get(key)).thenReturn(new SimpleValueWrapper("value"));
+
+        Cache cache = cacheManager.getCache(cacheName);
+        cache.get(key);
+        cache.evict(key);
+        cache.get(key);
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(remoteCache, Mockito.times(1)).evict(key);
+        Mockito.verify(remoteCache, Mockito.times(2)).get(key);
+        Mockito.verify(stringRedisTemplate, Mockito.times(1))
+                .convertAndSend(Mockito.eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), message.capture());
+
+        CacheInvalidationMessage invalidation =
+                objectMapper.readValue(message.getValue(), CacheInvalidationMessage.class);
+        Assertions.assertEquals(cacheName, invalidation.cacheName());
+        Assertions.assertEquals(key, invalidation.key());
+    }
+
+    @Test
+    public void whenReceiveInvalidationFromOtherNode_thenEvictLocalEntry() throws Exception {
+        String cacheName = "cache";
+        String key = "key";
+
+        Mockito.when(remoteCacheManager.getCache(cacheName)).thenReturn(remoteCache);
+        Mockito.when(remoteCache.get(key)).thenReturn(new SimpleValueWrapper("value"));
+
+        Cache cache = cacheManager.getCache(cacheName);
+        cache.get(key);
+        byte[] body = objectMapper.writeValueAsString(new CacheInvalidationMessage("other", cacheName, key))
+                .getBytes(StandardCharsets.UTF_8);
+        cacheManager.onMessage(new DefaultMessage(
+                TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8), body), null);
+        cache.get(key);
+
+        Mockito.verify(remoteCache, Mockito.times(2)).get(key);
+        Mockito.verify(remoteCache, Mockito.never()).evict(key);
+    }
+
+    @Test
+    public void whenBindMetrics_thenReportLocalHitsAndMisses() {
+        String cacheName = "cache";
+        String key = "key";
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        Mockito.when(remoteCacheManager.getCache(cacheName)).thenReturn(remoteCache);
+        Mockito.when(remoteCache.getName()).thenReturn(cacheName);
+        Mockito.when(remoteCache.get(key)).thenReturn(new SimpleValueWrapper("value"));
+
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache(cacheName);
+        new TwoLevelCacheMeterBinderProvider().getMeterBinder(cache, List.of()).bindTo(meterRegistry);
+        cache.get(key);
+        cache.get(key);
+
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", cacheName, "result", "hit").functionCounter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", cacheName, "result", "miss").functionCounter().count());
+    }
+}
@@ -0,0 +1,135 @@
+package com.allitov.booksapi.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ReplicaRoutingDataSourceTests {
+
+    private final DataSource primary = Mockito.mock(DataSource.class);
+
+    private final DataSource replica0 = Mockito.mock(DataSource.class);
+
+    private final DataSource replica1 = Mockito.mock(DataSource.class);
+
+    private final Connection primaryConnection = Mockito.mock(Connection.class);
+
+    private final Connection replicaConnection = Mockito.mock(Connection.class);
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        Mockito.when(replica0.getConnection()).thenReturn(replicaConnection);
+        Mockito.when(replica1.getConnection()).thenReturn(replicaConnection);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica0);
+        replicas.put("replica-1", replica1);
+        dataSource = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(5));
+        dataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRoutingContext.clear();
+    }
+
+    @Test
+    public void whenReadWriteTransaction_thenUsePrimary() throws Exception {
+        Assertions.assertSame(primaryConnection, dataSource.getConnection());
+
+        Mockito.verifyNoInteractions(replica0, replica1);
+    }
+
+    @Test
+    public void whenReadOnlyTransactions_thenUseReplicasInTurn() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        Mockito.verify(replica0, Mockito.times(1)).getConnection();
+        Mockito.verify(replica1, Mockito.times(1)).getConnection();
+        Mockito.verifyNoInteractions(primary);
+    }
+
+    @Test
+    public void whenPrimaryRequired_thenReadOnlyTransactionUsesPrimary() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaRoutingContext.requirePrimary();
+
+        Assertions.assertSame(primaryConnection, dataSource.getConnection());
+
+        Mockito.verifyNoInteractions(replica0, replica1);
+    }
+
+    @Test
+    public void whenGetOnPrimary_thenUsePrimaryOnlyForTheseReads() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Connection connection = ReplicaRoutingContext.getOnPrimary(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Assertions.assertSame(primaryConnection, connection);
+        Assertions.assertFalse(ReplicaRoutingContext.isPrimaryRequired());
+        Assertions.assertSame(replicaConnection, dataSource.getConnection());
+    }
+
+    @Test
+    public void whenReplicaUnavailable_thenFallBackToPrimaryAndSkipReplica() throws Exception {
+        Mockito.when(replica0.getConnection()).thenThrow(new SQLException("Connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertSame(primaryConnection, dataSource.getConnection());
+        Assertions.assertEquals(List.of("replica-1"), dataSource.getHealthyReplicaKeys());
+        Assertions.assertSame(replicaConnection, dataSource.getConnection());
+    }
+
+    @Test
+    public void whenCheckReplicas_thenKeepOnlyReachableReplicasWithinMaximumLag() throws Exception {
+        Statement statement = Mockito.mock(Statement.class);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Connection laggingConnection = Mockito.mock(Connection.class);
+        Statement laggingStatement = Mockito.mock(Statement.class);
+        ResultSet laggingResultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(replicaConnection.createStatement()).thenReturn(statement);
+        Mockito.when(statement.executeQuery(ArgumentMatchers.anyString())).thenReturn(resultSet);
+        Mockito.when(resultSet.getDouble(1)).thenReturn(0.5);
+        Mockito.when(replica1.getConnection()).thenReturn(laggingConnection);
+        Mockito.when(laggingConnection.createStatement()).thenReturn(laggingStatement);
+        Mockito.when(laggingStatement.executeQuery(ArgumentMatchers.anyString())).thenReturn(laggingResultSet);
+        Mockito.when(laggingResultSet.getDouble(1)).thenReturn(30.0);
+
+        dataSource.checkReplicas();
+
+        Assertions.assertEquals(List.of("replica-0"), dataSource.getHealthyReplicaKeys());
+
+        Mockito.when(laggingResultSet.getDouble(1)).thenReturn(1.0);
+
+        dataSource.checkReplicas();
+
+        Assertions.assertEquals(List.of("replica-0", "replica-1"), dataSource.getHealthyReplicaKeys());
+    }
+}
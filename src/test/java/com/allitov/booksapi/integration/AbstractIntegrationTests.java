@@ -2,6 +2,7 @@ package com.allitov.booksapi.integration;
 
 import com.allitov.booksapi.model.repository.BookRepository;
 import com.allitov.booksapi.model.service.BookService;
+import com.allitov.booksapi.model.service.impl.InMemoryCategoryResolver;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redis.testcontainers.RedisContainer;
 import jakarta.transaction.Transactional;
@@ -10,9 +11,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.test.web.servlet.MockMvc;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Testcontainers;
@@ -34,12 +38,21 @@ public abstract class AbstractIntegrationTests {
     @Autowired
     protected RedisTemplate<String, Object> redisTemplate;
 
+    @Autowired
+    protected StringRedisTemplate stringRedisTemplate;
+
     @Autowired
     protected BookService bookService;
 
     @Autowired
     protected BookRepository bookRepository;
 
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected InMemoryCategoryResolver categoryResolver;
+
     protected static final PostgreSQLContainer<?> POSTGRESQL_CONTAINER =
             new PostgreSQLContainer<>("postgres:16");
 
@@ -62,10 +75,22 @@ public abstract class AbstractIntegrationTests {
 
         registry.add("spring.data.redis.host", REDIS_CONTAINER::getHost);
         registry.add("spring.data.redis.port", () -> REDIS_CONTAINER.getMappedPort(6379).toString());
+
+        registry.add("app.cache.book-filter.rebuild-when-missing", () -> "false");
     }
 
     @BeforeEach
     public void beforeEach() {
         redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        categoryResolver.loadCategories();
+    }
+
+    /**
+     * Commits the test transaction, so the after-commit cache updates of the writes made in it run.
+     * The committed rows are removed by {@code db/init.sql} before the next test.
+     */
+    protected void commitTestTransaction() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
     }
 }
@@ -3,13 +3,19 @@ package com.allitov.booksapi.integration;
 import com.allitov.booksapi.model.data.Book;
 import com.allitov.booksapi.model.data.Category;
 import com.allitov.booksapi.util.TestUtils;
+import com.allitov.booksapi.web.dto.request.BookBatchRequest;
+import com.allitov.booksapi.web.dto.request.BookKeyRequest;
+import com.allitov.booksapi.web.dto.request.BookLookupRequest;
 import com.allitov.booksapi.web.dto.request.BookRequest;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import static net.javacrumbs.jsonunit.JsonAssert.assertJsonEquals;
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +41,8 @@ public class BooksApiIntegrationTests extends AbstractIntegrationTests {
                 .getContentAsString();
 
         assertTrue(Objects.requireNonNull(redisTemplate.hasKey(redisKey)));
+        assertTrue(Objects.requireNonNull(
+                redisTemplate.hasKey("bookByNameAndAuthorBody::" + bookName + "-" + authorName + "-json")));
 
         String expectedResponse = TestUtils.readStringFromResource(
                 "response/integration/get_book_by_name_and_author_response.json");
@@ -57,7 +65,7 @@ public class BooksApiIntegrationTests extends AbstractIntegrationTests {
                 .getResponse()
                 .getContentAsString();
 
-        assertTrue(Objects.requireNonNull(redisTemplate.keys("*")).isEmpty());
+        assertEquals(Set.of("bookByNameAndAuthor::" + bookName + "-" + authorName), redisTemplate.keys("*"));
 
         String expectedResponse = TestUtils.readStringFromResource(
                 "response/integration/ger_book_by_name_and_author_error_response.json");
@@ -68,7 +76,7 @@ public class BooksApiIntegrationTests extends AbstractIntegrationTests {
     @Test
     public void whenGetBooksByCategoryName_thenReturnBooks() throws Exception {
         String categoryName = "Comedy";
-        String redisKey = "booksByCategoryName::" + categoryName;
+        String redisKey = "categoryBooks::ids::" + categoryName;
 
         assertTrue(Objects.requireNonNull(redisTemplate.keys("*")).isEmpty());
 
@@ -81,6 +89,9 @@ public class BooksApiIntegrationTests extends AbstractIntegrationTests {
                 .getContentAsString();
 
         assertTrue(Objects.requireNonNull(redisTemplate.hasKey(redisKey)));
+        assertTrue(Objects.requireNonNull(redisTemplate.hasKey("categoryBooks::book::2")));
+        assertTrue(Objects.requireNonNull(
+                redisTemplate.hasKey("booksByCategoryNameBody::" + categoryName + "-0-50-json")));
 
         String expectedResponse = TestUtils.readStringFromResource(
                 "response/integration/get_books_by_category_name_response.json");
@@ -88,6 +99,138 @@ public class BooksApiIntegrationTests extends AbstractIntegrationTests {
         assertJsonEquals(expectedResponse, actualResponse);
     }
 
+    @Test
+    public void whenLookupBooksByIds_thenReturnBooksInRequestOrder() throws Exception {
+        BookLookupRequest request = BookLookupRequest.builder()
+                .ids(List.of(5L, 42L, 2L))
+                .books(List.of())
+                .build();
+
+        assertTrue(Objects.requireNonNull(redisTemplate.keys("*")).isEmpty());
+
+        mockMvc.perform(
+                post("/api/v1/book/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books.length()").value(3))
+                .andExpect(jsonPath("$.books[0].name").value("Prisoners of the Lost Universe"))
+                .andExpect(jsonPath("$.books[1]").value(Matchers.nullValue()))
+                .andExpect(jsonPath("$.books[2].name").value("Pin..."));
+
+        assertEquals(Set.of("categoryBooks::book::5", "categoryBooks::book::2"), redisTemplate.keys("*"));
+    }
+
+    @Test
+    public void whenLookupBooksByNamesAndAuthors_thenReturnBooksInRequestOrder() throws Exception {
+        BookLookupRequest request = BookLookupRequest.builder()
+                .ids(List.of())
+                .books(List.of(
+                        new BookKeyRequest("Pin...", "Oralle Tarbin"),
+                        new BookKeyRequest("Book Name", "Author Name"),
+                        new BookKeyRequest("Prisoners of the Lost Universe", "Sisile Erricker")))
+                .build();
+
+        mockMvc.perform(
+                post("/api/v1/book/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books.length()").value(3))
+                .andExpect(jsonPath("$.books[0].id").value(2))
+                .andExpect(jsonPath("$.books[1]").value(Matchers.nullValue()))
+                .andExpect(jsonPath("$.books[2].id").value(5));
+
+        assertTrue(Objects.requireNonNull(redisTemplate.hasKey("bookByNameAndAuthor::Pin...-Oralle Tarbin")));
+
+        mockMvc.perform(get("/api/v1/book?name=Pin...&author=Oralle Tarbin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(2));
+    }
+
+    @Test
+    public void whenCreateBookInCachedCategory_thenAddBookToCachedCategory() throws Exception {
+        String categoryName = "Comedy";
+        BookRequest request = new BookRequest("New Book", "New Author", categoryName, LocalDate.of(2000, 1, 1));
+
+        mockMvc.perform(get(String.format("/api/v1/book/category?name=%s", categoryName)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books.length()").value(1));
+
+        mockMvc.perform(
+                post("/api/v1/book")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        commitTestTransaction();
+
+        assertEquals(Set.of("0", "2", "6"),
+                stringRedisTemplate.opsForZSet().range("categoryBooks::ids::" + categoryName, 0, -1));
+
+        mockMvc.perform(get(String.format("/api/v1/book/category?name=%s", categoryName)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books.length()").value(2))
+                .andExpect(jsonPath("$.books[1].name").value("New Book"));
+    }
+
+    @Test
+    public void whenSearchBooks_thenReturnMostSimilarBooks() throws Exception {
+        String query = "Lost Univers";
+        String redisKey = "bookSearch::lost univers-0-20";
+
+        assertTrue(Objects.requireNonNull(redisTemplate.keys("*")).isEmpty());
+
+        mockMvc.perform(
+                get(String.format("/api/v1/book/search?q=%s", query)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.books[0].name").value("Prisoners of the Lost Universe"))
+                .andExpect(jsonPath("$.nextPage").doesNotExist());
+
+        assertTrue(Objects.requireNonNull(redisTemplate.hasKey(redisKey)));
+    }
+
+    @Test
+    public void whenExportBooksAsCsv_thenReturnAllBooks() throws Exception {
+        MvcResult result = mockMvc.perform(
+                get("/api/v1/book/export?format=csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String actualResponse = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = actualResponse.split("\n");
+        assertEquals(6, lines.length);
+        assertEquals("id,name,author,categoryName,publicationDate", lines[0]);
+        assertEquals("2,Pin...,Oralle Tarbin,Comedy,2005-05-25", lines[2]);
+        assertTrue(Objects.requireNonNull(redisTemplate.keys("*")).isEmpty());
+    }
+
+    @Test
+    public void whenGetBooksByCategoryNameWithMatchingETag_thenReturnNotModified() throws Exception {
+        String categoryName = "Comedy";
+
+        String eTag = mockMvc.perform(
+                get(String.format("/api/v1/book/category?name=%s", categoryName)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(
+                get(String.format("/api/v1/book/category?name=%s", categoryName))
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+    }
+
     @Test
     public void whenCreateBook_thenReturnLocation() throws Exception {
         BookRequest request = new BookRequest("New Book", "New Author",
@@ -103,8 +246,108 @@ public class BooksApiIntegrationTests extends AbstractIntegrationTests {
                 .andExpect(status().isCreated())
                 .andExpect(header().string("Location", Matchers.containsString("/api/v1/book/6")));
 
-        assertTrue(Objects.requireNonNull(redisTemplate.keys("*")).isEmpty());
+        commitTestTransaction();
+
+        assertEquals(Set.of("categoryVersion::New Category", "categoryLastModified::New Category", "bookFilter::bits",
+                "bookById::6"), redisTemplate.keys("*"));
         assertEquals(6, bookRepository.count());
+
+        mockMvc.perform(get("/api/v1/book/{id}", 6L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("New Book"))
+                .andExpect(jsonPath("$.categoryName").value("New Category"));
+    }
+
+    @Test
+    public void whenCreateBooks_thenReturnCreatedBooks() throws Exception {
+        BookBatchRequest request = new BookBatchRequest(List.of(
+                new BookRequest("First Book", "First Author", "Comedy", LocalDate.of(2000, 1, 1)),
+                new BookRequest("Second Book", "Second Author", "New Category", LocalDate.of(2000, 1, 2)),
+                new BookRequest("Third Book", "Third Author", "New Category", LocalDate.of(2000, 1, 3))
+        ));
+
+        assertTrue(Objects.requireNonNull(redisTemplate.keys("*")).isEmpty());
+        assertEquals(5, bookRepository.count());
+
+        mockMvc.perform(
+                post("/api/v1/book/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.books.length()").value(3))
+                .andExpect(jsonPath("$.books[1].categoryName").value("New Category"));
+
+        commitTestTransaction();
+
+        assertEquals(Set.of("categoryVersion::Comedy", "categoryLastModified::Comedy",
+                "categoryVersion::New Category", "categoryLastModified::New Category", "bookFilter::bits",
+                "bookById::6", "bookById::7", "bookById::8"), redisTemplate.keys("*"));
+        assertEquals(8, bookRepository.count());
+    }
+
+    @Test
+    public void whenImportBooks_thenCreateBooksAndCategories() throws Exception {
+        String csv = """
+                name,author,categoryName,publicationDate
+                First Book,First Author,Comedy,2000-01-01
+                "Second, Book",Second Author,New Category,2000-01-02
+                """;
+
+        assertTrue(Objects.requireNonNull(redisTemplate.keys("*")).isEmpty());
+        assertEquals(5, bookRepository.count());
+
+        mockMvc.perform(
+                post("/api/v1/book/import?format=csv")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.importedBooks").value(2));
+
+        commitTestTransaction();
+
+        assertEquals(Set.of("categoryVersion::Comedy", "categoryLastModified::Comedy",
+                "categoryVersion::New Category", "categoryLastModified::New Category", "bookFilter::bits"),
+                redisTemplate.keys("*"));
+        assertEquals(7, bookRepository.count());
+        assertTrue(bookRepository.findFirstBookByNameAndAuthorOrderByIdAsc("Second, Book", "Second Author").isPresent());
+    }
+
+    @Test
+    public void whenImportBooksIntoUnusedSequence_thenCreateBooksWithPositiveIds() throws Exception {
+        String csv = """
+                name,author,categoryName,publicationDate
+                First Book,First Author,Comedy,2000-01-01
+                Second Book,Second Author,Comedy,2000-01-02
+                """;
+
+        bookRepository.deleteAllInBatch();
+        jdbcTemplate.queryForObject("SELECT setval('books_id_seq', 1, false)", Long.class);
+
+        mockMvc.perform(
+                post("/api/v1/book/import?format=csv")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.importedBooks").value(2));
+
+        assertEquals(List.of(2L, 3L), bookRepository.findAll().stream().map(Book::getId).sorted().toList());
+    }
+
+    @Test
+    public void whenImportBooksWithBlankValues_thenImportNothing() throws Exception {
+        String csv = """
+                name,author,categoryName,publicationDate
+                First Book,First Author,Comedy,2000-01-01
+                ,Second Author,Comedy,2000-01-02
+                """;
+
+        mockMvc.perform(
+                post("/api/v1/book/import?format=csv")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(5, bookRepository.count());
     }
 
     @Test
@@ -127,7 +370,11 @@ public class BooksApiIntegrationTests extends AbstractIntegrationTests {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isNoContent());
 
-        assertTrue(Objects.requireNonNull(redisTemplate.keys("*")).isEmpty());
+        commitTestTransaction();
+
+        assertEquals(Set.of("categoryVersion::Thriller", "categoryLastModified::Thriller",
+                "categoryVersion::Updated Category", "categoryLastModified::Updated Category", "bookFilter::bits",
+                "bookById::1", "bookByNameAndAuthor::Updated Book-Updated Author"), redisTemplate.keys("*"));
         assertEquals(expectedBook, bookRepository.findById(bookId).orElse(null));
     }
 
@@ -142,7 +389,10 @@ public class BooksApiIntegrationTests extends AbstractIntegrationTests {
                 delete("/api/v1/book/{id}", bookId))
                 .andExpect(status().isNoContent());
 
-        assertTrue(Objects.requireNonNull(redisTemplate.keys("*")).isEmpty());
+        commitTestTransaction();
+
+        assertEquals(Set.of("categoryVersion::Thriller", "categoryLastModified::Thriller"),
+                redisTemplate.keys("*"));
         assertEquals(4, bookRepository.count());
     }
 }
@@ -0,0 +1,41 @@
+package com.allitov.booksapi.model.repository;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class DatabaseIndexVerifierTests {
+
+    private final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+
+    private final DatabaseIndexVerifier verifier = new DatabaseIndexVerifier(jdbcTemplate);
+
+    @Test
+    public void whenAllIndexesExist_thenPassVerification() {
+        Mockito.when(jdbcTemplate.queryForList(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.eq(String.class),
+                ArgumentMatchers.eq(DatabaseIndexVerifier.SCHEMA_NAME))
+        ).thenReturn(List.of("books_pkey", "books_name_author_idx", "books_category_id_id_idx",
+                "books_name_author_trgm_idx"));
+
+        Assertions.assertDoesNotThrow(verifier::afterPropertiesSet);
+    }
+
+    @Test
+    public void whenIndexMissing_thenThrowIllegalStateException() {
+        Mockito.when(jdbcTemplate.queryForList(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.eq(String.class),
+                ArgumentMatchers.eq(DatabaseIndexVerifier.SCHEMA_NAME))
+        ).thenReturn(List.of("books_pkey", "books_name_author_idx"));
+
+        IllegalStateException exception = Assertions.assertThrows(
+                IllegalStateException.class, verifier::afterPropertiesSet);
+        Assertions.assertTrue(exception.getMessage().contains("books_category_id_id_idx"));
+    }
+}
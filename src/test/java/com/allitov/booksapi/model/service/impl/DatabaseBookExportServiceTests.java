@@ -0,0 +1,81 @@
+package com.allitov.booksapi.model.service.impl;
+
+import com.allitov.booksapi.model.repository.BookRepository;
+import com.allitov.booksapi.model.service.BookFileFormat;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+public class DatabaseBookExportServiceTests {
+
+    private final BookRepository bookRepository = Mockito.mock(BookRepository.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final DatabaseBookExportService service = new DatabaseBookExportService(bookRepository, objectMapper);
+
+    @Test
+    public void whenExportBooksAsNdjson_thenWriteBookPerLine() throws Exception {
+        Mockito.when(bookRepository.streamAllBookResponses())
+                .thenReturn(Stream.of(
+                        createBookResponse(1L, "Book Name"),
+                        createBookResponse(2L, "Other Book")
+                ));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        service.exportBooks(BookFileFormat.NDJSON, outputStream);
+
+        Mockito.verify(bookRepository, Mockito.times(1))
+                .streamAllBookResponses();
+
+        Assertions.assertEquals(
+                """
+                {"id":1,"name":"Book Name","author":"Author Name","categoryName":"Category Name","publicationDate":"2012-12-12"}
+                {"id":2,"name":"Other Book","author":"Author Name","categoryName":"Category Name","publicationDate":"2012-12-12"}
+                """,
+                outputStream.toString(StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    public void whenExportBooksAsCsv_thenWriteHeaderAndQuotedRows() throws Exception {
+        Mockito.when(bookRepository.streamAllBookResponses())
+                .thenReturn(Stream.of(
+                        createBookResponse(1L, "Book Name"),
+                        createBookResponse(2L, "Travelling \"Players\", The")
+                ));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        service.exportBooks(BookFileFormat.CSV, outputStream);
+
+        Assertions.assertEquals(
+                """
+                id,name,author,categoryName,publicationDate
+                1,Book Name,Author Name,Category Name,2012-12-12
+                2,"Travelling ""Players"", The",Author Name,Category Name,2012-12-12
+                """,
+                outputStream.toString(StandardCharsets.UTF_8)
+        );
+    }
+
+    private BookResponse createBookResponse(Long id, String name) {
+        return BookResponse.builder()
+                .id(id)
+                .name(name)
+                .author("Author Name")
+                .categoryName("Category Name")
+                .publicationDate(LocalDate.of(2012, 12, 12))
+                .build();
+    }
+}
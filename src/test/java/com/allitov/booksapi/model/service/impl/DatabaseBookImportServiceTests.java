@@ -0,0 +1,125 @@
+package com.allitov.booksapi.model.service.impl;
+
+import com.allitov.booksapi.cache.AfterCommitCacheInvalidator;
+import com.allitov.booksapi.cache.BookBloomFilter;
+import com.allitov.booksapi.cache.CategoryBookCache;
+import com.allitov.booksapi.exception.InvalidImportException;
+import com.allitov.booksapi.model.data.BookImportResult;
+import com.allitov.booksapi.model.repository.BookImportRepository;
+import com.allitov.booksapi.model.service.BookFileFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public class DatabaseBookImportServiceTests {
+
+    private final BookImportRepository bookImportRepository = Mockito.mock(BookImportRepository.class);
+
+    private final AfterCommitCacheInvalidator cacheInvalidator = Mockito.mock(AfterCommitCacheInvalidator.class);
+
+    private final BookBloomFilter bookBloomFilter = Mockito.mock(BookBloomFilter.class);
+
+    private final CategoryBookCache categoryBookCache = Mockito.mock(CategoryBookCache.class);
+
+    private final DatabaseBookImportService service = new DatabaseBookImportService(
+            bookImportRepository, cacheInvalidator, bookBloomFilter, categoryBookCache,
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    public void whenImportCsv_thenCopyRowsAndMergeThem() throws Exception {
+        InputStream csv = createInputStream("""
+                id,name,author,categoryName,publicationDate
+                1,Book Name,Author Name,Category Name,2012-12-12
+                """);
+        List<String> categoryNames = List.of("Category Name");
+
+        Mockito.when(bookImportRepository.copyCsv(ArgumentMatchers.anyList(), ArgumentMatchers.any()))
+                .thenReturn(1L);
+        Mockito.when(bookImportRepository.mergeBooks())
+                .thenReturn(1L);
+        Mockito.when(bookImportRepository.findStagedCategoryNames())
+                .thenReturn(categoryNames);
+        Mockito.doAnswer(invocation -> {
+            invocation.<BiConsumer<String, String>>getArgument(0).accept("Book Name", "Author Name");
+            return null;
+        }).when(bookImportRepository).forEachStagedBook(ArgumentMatchers.any());
+
+        BookImportResult result = service.importBooks(BookFileFormat.CSV, csv);
+
+        Mockito.verify(bookImportRepository, Mockito.times(1))
+                .createStagingTable();
+        Mockito.verify(bookImportRepository, Mockito.times(1)).copyCsv(
+                ArgumentMatchers.eq(List.of("id", "name", "author", "category_name", "publication_date")),
+                ArgumentMatchers.any());
+        Mockito.verify(bookImportRepository, Mockito.times(1))
+                .mergeCategories();
+        Mockito.verify(cacheInvalidator, Mockito.times(1))
+                .incrementVersionsAfterCommit(categoryNames);
+        Mockito.verify(cacheInvalidator, Mockito.times(1))
+                .runAfterCommit(ArgumentMatchers.any());
+        Mockito.verify(bookBloomFilter, Mockito.times(1))
+                .addAll(ArgumentMatchers.argThat(books -> books.size() == 1));
+
+        Assertions.assertEquals(new BookImportResult(1L, categoryNames), result);
+    }
+
+    @Test
+    public void whenImportNdjsonWithInvalidRows_thenCopyBooksAndThrowError() throws Exception {
+        InputStream ndjson = createInputStream("""
+                {"name":"Book Name","author":"Author Name","categoryName":"Category Name","publicationDate":"2012-12-12"}
+                {"name":"Other Book","author":"Author Name","categoryName":"Category Name"}
+                """);
+        List<List<String>> copiedRows = new ArrayList<>();
+
+        Mockito.when(bookImportRepository.copyRows(ArgumentMatchers.anyList(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    invocation.<Iterator<List<String>>>getArgument(1).forEachRemaining(copiedRows::add);
+                    return (long) copiedRows.size();
+                });
+        Mockito.when(bookImportRepository.countInvalidRows())
+                .thenReturn(1L);
+
+        Assertions.assertThrows(InvalidImportException.class, () -> service.importBooks(BookFileFormat.NDJSON, ndjson));
+
+        Mockito.verify(bookImportRepository, Mockito.never())
+                .mergeBooks();
+        Mockito.verifyNoInteractions(cacheInvalidator, bookBloomFilter);
+
+        Assertions.assertEquals(
+                List.of(
+                        List.of("Book Name", "Author Name", "Category Name", "2012-12-12"),
+                        Arrays.asList("Other Book", "Author Name", "Category Name", null)
+                ),
+                copiedRows
+        );
+    }
+
+    @Test
+    public void whenImportCsvWithUnknownColumn_thenThrowError() {
+        InputStream csv = createInputStream("""
+                name,author,category,publicationDate
+                Book Name,Author Name,Category Name,2012-12-12
+                """);
+
+        Assertions.assertThrows(InvalidImportException.class, () -> service.importBooks(BookFileFormat.CSV, csv));
+
+        Mockito.verify(bookImportRepository, Mockito.never())
+                .copyCsv(ArgumentMatchers.anyList(), ArgumentMatchers.any());
+    }
+
+    private InputStream createInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,30 +1,80 @@
 package com.allitov.booksapi.model.service.impl;
 
+import com.allitov.booksapi.cache.AfterCommitCacheInvalidator;
+import com.allitov.booksapi.cache.BookBloomFilter;
+import com.allitov.booksapi.cache.BookByNameAndAuthorCache;
+import com.allitov.booksapi.cache.CategoryBookCache;
+import com.allitov.booksapi.cache.CategoryVersionRegistry;
+import com.allitov.booksapi.configuration.AppCacheProperties;
 import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.BookKey;
 import com.allitov.booksapi.model.data.Category;
+import com.allitov.booksapi.model.repository.BookLookupRepository;
 import com.allitov.booksapi.model.repository.BookRepository;
-import com.allitov.booksapi.model.repository.CategoryRepository;
+import com.allitov.booksapi.model.repository.BookSearchRepository;
+import com.allitov.booksapi.model.service.CategoryResolver;
+import com.allitov.booksapi.web.dto.response.BookResponse;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class DatabaseBookServiceTests {
 
     private final BookRepository bookRepository = Mockito.mock(BookRepository.class);
 
-    private final CategoryRepository categoryRepository = Mockito.mock(CategoryRepository.class);
+    private final CategoryResolver categoryResolver = Mockito.mock(CategoryResolver.class);
 
     private final CacheManager cacheManager = Mockito.mock(CacheManager.class);
 
-    private final DatabaseBookService service =
-            new DatabaseBookService(bookRepository, categoryRepository, cacheManager);
+    private final CategoryVersionRegistry categoryVersionRegistry = Mockito.mock(CategoryVersionRegistry.class);
+
+    private final BookBloomFilter bookBloomFilter = Mockito.mock(BookBloomFilter.class);
+
+    private final BookSearchRepository bookSearchRepository = Mockito.mock(BookSearchRepository.class);
+
+    private final CategoryBookCache categoryBookCache = Mockito.mock(CategoryBookCache.class);
+
+    private final BookByNameAndAuthorCache bookByNameAndAuthorBatchCache =
+            Mockito.mock(BookByNameAndAuthorCache.class);
+
+    private final BookLookupRepository bookLookupRepository = Mockito.mock(BookLookupRepository.class);
+
+    private final Cache bookByNameAndAuthorCache = new ConcurrentMapCache("bookByNameAndAuthor");
+
+    private final Cache bookByIdCache = new ConcurrentMapCache("bookById");
+
+    private final DatabaseBookService service = new DatabaseBookService(
+            bookRepository, categoryResolver, cacheManager,
+            new AfterCommitCacheInvalidator(cacheManager, categoryVersionRegistry, new AppCacheProperties()),
+            bookBloomFilter, bookSearchRepository, categoryBookCache, bookByNameAndAuthorBatchCache,
+            bookLookupRepository);
+
+    @BeforeEach
+    public void beforeEach() {
+        Mockito.when(cacheManager.getCache("bookByNameAndAuthor"))
+                .thenReturn(bookByNameAndAuthorCache);
+        Mockito.when(cacheManager.getCache("bookById"))
+                .thenReturn(bookByIdCache);
+        Mockito.when(bookBloomFilter.mightContain(ArgumentMatchers.anyString(), ArgumentMatchers.anyString()))
+                .thenReturn(true);
+    }
 
     @Test
     public void whenFindBookById_thenReturnBook() {
@@ -64,19 +114,36 @@ public class DatabaseBookServiceTests {
         );
     }
 
+    @Test
+    public void whenFindBookByIdTwice_thenQueryDatabaseOnce() {
+        Long bookId = 10L;
+        Book expectedBook = createBookEntity();
+
+        Mockito.when(bookRepository.findById(bookId))
+                .thenReturn(Optional.of(expectedBook));
+
+        service.findBookById(bookId);
+        Book actualBook = service.findBookById(bookId);
+
+        Mockito.verify(bookRepository, Mockito.times(1))
+                .findById(bookId);
+
+        Assertions.assertEquals(expectedBook, actualBook, "Returned not expected book.");
+    }
+
     @Test
     public void whenFindBookByNameAndAuthor_thenReturnBook() {
         String bookName = "Book Name";
         String author = "Author Name";
         Book expectedBook = createBookEntity();
 
-        Mockito.when(bookRepository.findFirstBookByNameAndAuthor(bookName, author))
+        Mockito.when(bookRepository.findFirstBookByNameAndAuthorOrderByIdAsc(bookName, author))
                 .thenReturn(Optional.of(expectedBook));
 
         Book actualBook = service.findBookByNameAndAuthor(bookName, author);
 
         Mockito.verify(bookRepository, Mockito.times(1))
-                .findFirstBookByNameAndAuthor(bookName, author);
+                .findFirstBookByNameAndAuthorOrderByIdAsc(bookName, author);
 
         Assertions.assertEquals(expectedBook, actualBook, "Returned not expected book.");
     }
@@ -86,7 +153,7 @@ public class DatabaseBookServiceTests {
         String bookName = "Book Name";
         String author = "Author Name";
 
-        Mockito.when(bookRepository.findFirstBookByNameAndAuthor(bookName, author))
+        Mockito.when(bookRepository.findFirstBookByNameAndAuthorOrderByIdAsc(bookName, author))
                 .thenReturn(Optional.empty());
 
         EntityNotFoundException thrown = Assertions.assertThrows(
@@ -96,8 +163,44 @@ public class DatabaseBookServiceTests {
         );
 
         Mockito.verify(bookRepository, Mockito.times(1))
-                .findFirstBookByNameAndAuthor(bookName, author);
+                .findFirstBookByNameAndAuthorOrderByIdAsc(bookName, author);
+
+        Assertions.assertEquals(
+                String.format("Book with name '%s' and author '%s' not found", bookName, author),
+                thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void whenFindNonexistentBookByNameAndAuthorTwice_thenQueryDatabaseOnce() {
+        String bookName = "Book Name";
+        String author = "Author Name";
+
+        Mockito.when(bookRepository.findFirstBookByNameAndAuthorOrderByIdAsc(bookName, author))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertThrows(EntityNotFoundException.class, () -> service.findBookByNameAndAuthor(bookName, author));
+        Assertions.assertThrows(EntityNotFoundException.class, () -> service.findBookByNameAndAuthor(bookName, author));
+
+        Mockito.verify(bookRepository, Mockito.times(1))
+                .findFirstBookByNameAndAuthorOrderByIdAsc(bookName, author);
+    }
 
+    @Test
+    public void whenBookNotInBloomFilter_thenThrowErrorWithoutDatabaseQuery() {
+        String bookName = "Book Name";
+        String author = "Author Name";
+
+        Mockito.when(bookBloomFilter.mightContain(bookName, author))
+                .thenReturn(false);
+
+        EntityNotFoundException thrown = Assertions.assertThrows(
+                EntityNotFoundException.class,
+                () -> service.findBookByNameAndAuthor(bookName, author)
+        );
+
+        Mockito.verifyNoInteractions(bookRepository);
+        Assertions.assertNull(bookByNameAndAuthorCache.get(bookName + "-" + author));
         Assertions.assertEquals(
                 String.format("Book with name '%s' and author '%s' not found", bookName, author),
                 thrown.getMessage()
@@ -107,18 +210,118 @@ public class DatabaseBookServiceTests {
     @Test
     public void whenFindBooksByCategoryName_thenReturnBooks() {
         String categoryName = "Category Name";
-        List<Book> expectedBooks = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            expectedBooks.add(createBookEntity());
+        Long lastId = 0L;
+        int limit = 5;
+        List<BookResponse> expectedBooks = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            expectedBooks.add(new BookResponse(i, "Book Name", "Author Name", categoryName, LocalDate.of(1990, 1, 1)));
         }
 
-        Mockito.when(bookRepository.findBooksByCategoryName(categoryName))
+        List<Long> bookIds = List.of(1L, 2L, 3L, 4L, 5L);
+
+        Mockito.when(bookRepository.findBookIdsByCategoryName(categoryName))
+                .thenReturn(bookIds);
+        Mockito.when(bookRepository.findBookResponsesByIdIn(bookIds))
                 .thenReturn(expectedBooks);
+        Mockito.when(categoryBookCache.getPage(ArgumentMatchers.eq(categoryName), ArgumentMatchers.eq(lastId),
+                        ArgumentMatchers.eq(limit), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    Supplier<List<Long>> bookIdsLoader = invocation.getArgument(3);
+                    Function<List<Long>, List<BookResponse>> booksLoader = invocation.getArgument(4);
 
-        List<Book> actualBooks = service.findBooksByCategoryName(categoryName);
+                    return booksLoader.apply(bookIdsLoader.get());
+                });
 
+        List<BookResponse> actualBooks = service.findBooksByCategoryName(categoryName, lastId, limit);
+
+        Mockito.verify(bookRepository, Mockito.times(1))
+                .findBookIdsByCategoryName(categoryName);
         Mockito.verify(bookRepository, Mockito.times(1))
-                .findBooksByCategoryName(categoryName);
+                .findBookResponsesByIdIn(bookIds);
+
+        Assertions.assertEquals(expectedBooks, actualBooks, "Returned not expected books.");
+    }
+
+    @Test
+    public void whenFindBooksByIds_thenLoadMissingBooksOnceAndReturnThemInRequestOrder() {
+        BookResponse cachedBook = new BookResponse(
+                3L, "Book Name", "Author Name", "Category Name", LocalDate.of(1990, 1, 1));
+        BookResponse loadedBook = new BookResponse(
+                1L, "Book Name", "Author Name", "Category Name", LocalDate.of(1990, 1, 1));
+
+        Mockito.when(bookRepository.findBookResponsesByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(loadedBook));
+        Mockito.when(categoryBookCache.getBooks(ArgumentMatchers.eq(List.of(3L, 1L, 2L)), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    Function<List<Long>, List<BookResponse>> booksLoader = invocation.getArgument(1);
+                    Map<Long, BookResponse> books = new HashMap<>(Map.of(3L, cachedBook));
+                    booksLoader.apply(List.of(1L, 2L)).forEach(book -> books.put(book.getId(), book));
+
+                    return books;
+                });
+
+        List<BookResponse> actualBooks = service.findBooksByIds(List.of(3L, 1L, 2L, 3L));
+
+        Mockito.verify(bookRepository, Mockito.times(1))
+                .findBookResponsesByIdIn(List.of(1L, 2L));
+
+        Assertions.assertEquals(Arrays.asList(cachedBook, loadedBook, null, cachedBook), actualBooks,
+                "Returned not expected books.");
+    }
+
+    @Test
+    public void whenFindBooksByKeys_thenSkipKeysNotInBloomFilterAndLoadOthersOnce() {
+        Book book = createBookEntity();
+        BookKey existingKey = new BookKey(book.getName(), book.getAuthor());
+        BookKey missingKey = new BookKey("Missing Book", book.getAuthor());
+        BookKey filteredKey = new BookKey("Filtered Book", book.getAuthor());
+        List<BookKey> keys = List.of(existingKey, missingKey, filteredKey);
+        Map<BookKey, Book> loadedBooks = new HashMap<>();
+
+        Mockito.when(bookBloomFilter.mightContainAll(keys))
+                .thenReturn(List.of(true, true, false));
+        Mockito.when(bookLookupRepository.findBooksByKeys(Set.of(existingKey, missingKey)))
+                .thenReturn(List.of(book));
+        Mockito.when(bookByNameAndAuthorBatchCache.getBooks(ArgumentMatchers.eq(keys), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    Function<List<BookKey>, Map<BookKey, Book>> booksLoader = invocation.getArgument(1);
+                    loadedBooks.putAll(booksLoader.apply(keys));
+
+                    return Map.of(existingKey, book);
+                });
+
+        BookResponse expectedBook = new BookResponse(book.getId(), book.getName(), book.getAuthor(),
+                book.getCategory().getName(), book.getPublicationDate());
+
+        List<BookResponse> actualBooks = service.findBooksByKeys(
+                List.of(existingKey, missingKey, filteredKey, existingKey));
+
+        Mockito.verify(bookLookupRepository, Mockito.times(1))
+                .findBooksByKeys(Set.of(existingKey, missingKey));
+
+        Assertions.assertEquals(Arrays.asList(expectedBook, null, null, expectedBook), actualBooks, "Returned not expected books.");
+        Assertions.assertEquals(book, loadedBooks.get(existingKey), "Loaded not expected book.");
+        Assertions.assertTrue(loadedBooks.containsKey(missingKey), "Missing book is not cached as missing.");
+        Assertions.assertFalse(loadedBooks.containsKey(filteredKey), "Filtered book is cached as missing.");
+    }
+
+    @Test
+    public void whenSearchBooks_thenReturnPageOfBooks() {
+        String query = "lost univ";
+        int page = 2;
+        int size = 20;
+        List<BookResponse> expectedBooks = List.of(
+                new BookResponse(1L, "Prisoners of the Lost Universe", "Sisile Erricker", "Western",
+                        LocalDate.of(1990, 1, 1))
+        );
+
+        Mockito.when(bookSearchRepository.searchBooks(query, 40, size))
+                .thenReturn(expectedBooks);
+
+        List<BookResponse> actualBooks = service.searchBooks(query, page, size);
+
+        Mockito.verify(bookSearchRepository, Mockito.times(1))
+                .searchBooks(query, 40, size);
 
         Assertions.assertEquals(expectedBooks, actualBooks, "Returned not expected books.");
     }
@@ -129,40 +332,83 @@ public class DatabaseBookServiceTests {
         Category expectedCategory = createCategoryEntity();
         Book expectedBook = createBookEntity();
 
-        Mockito.when(categoryRepository.findCategoryByName(categoryName))
-                .thenReturn(Optional.of(expectedCategory));
+        Mockito.when(categoryResolver.resolveCategory(categoryName))
+                .thenReturn(expectedCategory);
         Mockito.when(bookRepository.save(expectedBook))
                 .thenReturn(expectedBook);
+        Mockito.when(bookBloomFilter.add(expectedBook.getName(), expectedBook.getAuthor()))
+                .thenReturn(true);
+        bookByNameAndAuthorCache.put(expectedBook.getName() + "-" + expectedBook.getAuthor(), null);
 
         Book actualBook = service.createBook(expectedBook);
 
-        Mockito.verify(categoryRepository, Mockito.times(1))
-                .findCategoryByName(categoryName);
+        Mockito.verify(categoryResolver, Mockito.times(1))
+                .resolveCategory(categoryName);
         Mockito.verify(bookRepository, Mockito.times(1))
                 .save(expectedBook);
+        Mockito.verify(categoryVersionRegistry, Mockito.times(1))
+                .incrementVersions(List.of(categoryName));
+        Mockito.verify(categoryBookCache, Mockito.times(1))
+                .addBooks(List.of(expectedBook));
 
         Assertions.assertEquals(expectedBook, actualBook, "Returned not expected book.");
+        Assertions.assertSame(expectedCategory, actualBook.getCategory());
+        Assertions.assertNull(bookByNameAndAuthorCache.get(expectedBook.getName() + "-" + expectedBook.getAuthor()));
     }
 
     @Test
-    public void whenCreateBookWithNewCategory_thenReturnCreatedBook() {
-        String categoryName = "Category Name";
-        Category newCategory = createCategoryEntity();
-        newCategory.setId(null);
-        Category createdCategory = createCategoryEntity();
+    public void whenCreateBookWithNewNameAndAuthor_thenWriteBookToCaches() {
+        Category category = createCategoryEntity();
         Book expectedBook = createBookEntity();
+        String key = expectedBook.getName() + "-" + expectedBook.getAuthor();
 
-        Mockito.when(categoryRepository.findCategoryByName(categoryName)).thenReturn(Optional.empty());
-        Mockito.when(categoryRepository.save(newCategory)).thenReturn(createdCategory);
-        Mockito.when(bookRepository.save(expectedBook)).thenReturn(expectedBook);
+        Mockito.when(categoryResolver.resolveCategory(category.getName()))
+                .thenReturn(category);
+        Mockito.when(bookRepository.save(expectedBook))
+                .thenReturn(expectedBook);
+        Mockito.when(bookBloomFilter.add(expectedBook.getName(), expectedBook.getAuthor()))
+                .thenReturn(false);
 
-        Book actualBook = service.createBook(expectedBook);
+        service.createBook(expectedBook);
 
-        Mockito.verify(categoryRepository, Mockito.times(1)).findCategoryByName(categoryName);
-        Mockito.verify(categoryRepository, Mockito.times(1)).save(newCategory);
-        Mockito.verify(bookRepository, Mockito.times(1)).save(expectedBook);
+        Assertions.assertEquals(expectedBook, bookByIdCache.get(expectedBook.getId(), Book.class));
+        Assertions.assertEquals(expectedBook, bookByNameAndAuthorCache.get(key, Book.class));
+        Assertions.assertEquals(expectedBook, service.findBookById(expectedBook.getId()));
+        Mockito.verify(bookRepository, Mockito.never())
+                .findById(ArgumentMatchers.any());
+    }
 
-        Assertions.assertEquals(expectedBook, actualBook, "Returned not expected book.");
+    @Test
+    public void whenCreateBooks_thenResolveCategoriesOnceAndReturnCreatedBooks() {
+        String categoryName = "Category Name";
+        String newCategoryName = "New Category Name";
+        Category existingCategory = createCategoryEntity();
+        Category createdCategory = new Category(51L, newCategoryName);
+        List<Book> books = List.of(createBookEntity(), createBookEntity(), createBookEntity());
+        books.get(2).setCategory(new Category(null, newCategoryName));
+
+        Mockito.when(categoryResolver.resolveCategories(Set.of(categoryName, newCategoryName)))
+                .thenReturn(Map.of(categoryName, existingCategory, newCategoryName, createdCategory));
+        Mockito.when(bookRepository.saveAll(books))
+                .thenReturn(books);
+        Mockito.when(bookBloomFilter.addAll(books))
+                .thenReturn(List.of(false, false, false));
+
+        List<Book> actualBooks = service.createBooks(books);
+
+        Mockito.verify(categoryResolver, Mockito.times(1))
+                .resolveCategories(Set.of(categoryName, newCategoryName));
+        Mockito.verify(bookRepository, Mockito.times(1))
+                .saveAll(books);
+        Mockito.verify(categoryVersionRegistry, Mockito.times(1))
+                .incrementVersions(ArgumentMatchers.argThat(categoryNames ->
+                        Set.copyOf(categoryNames).equals(Set.of(categoryName, newCategoryName))));
+        Mockito.verify(bookBloomFilter, Mockito.times(1))
+                .addAll(books);
+
+        Assertions.assertEquals(existingCategory, actualBooks.get(0).getCategory());
+        Assertions.assertEquals(existingCategory, actualBooks.get(1).getCategory());
+        Assertions.assertEquals(createdCategory, actualBooks.get(2).getCategory());
     }
 
     @Test
@@ -172,8 +418,8 @@ public class DatabaseBookServiceTests {
         Category category = createCategoryEntity();
         Book expectedBook = createBookEntity();
 
-        Mockito.when(categoryRepository.findCategoryByName(categoryName))
-                .thenReturn(Optional.of(category));
+        Mockito.when(categoryResolver.resolveCategory(categoryName))
+                .thenReturn(category);
         Mockito.when(bookRepository.findById(bookId))
                 .thenReturn(Optional.of(expectedBook));
         Mockito.when(bookRepository.save(expectedBook))
@@ -181,45 +427,159 @@ public class DatabaseBookServiceTests {
 
         Book actualBook = service.updateBook(expectedBook);
 
-        Mockito.verify(categoryRepository, Mockito.times(1))
-                .findCategoryByName(categoryName);
+        Mockito.verify(categoryResolver, Mockito.times(1))
+                .resolveCategory(categoryName);
         Mockito.verify(bookRepository, Mockito.times(1))
                 .findById(bookId);
         Mockito.verify(bookRepository, Mockito.times(1))
                 .save(expectedBook);
+        Mockito.verify(categoryVersionRegistry, Mockito.times(1))
+                .incrementVersions(List.of(categoryName));
 
         Assertions.assertEquals(expectedBook, actualBook, "Returned not expected book.");
+        Assertions.assertEquals(expectedBook, bookByIdCache.get(bookId, Book.class));
+        Assertions.assertEquals(expectedBook, bookByNameAndAuthorCache.get(
+                expectedBook.getName() + "-" + expectedBook.getAuthor(), Book.class));
     }
 
     @Test
-    public void whenUpdateBookByIdWithNewCategory_thenReturnBook() {
+    public void whenUpdateBookNameAndCategory_thenEvictPreviousKeyAndWriteNewKey() {
         Long bookId = 10L;
-        String categoryName = "Category Name";
-        Category newCategory = createCategoryEntity();
-        newCategory.setId(null);
-        Category createdCategory = createCategoryEntity();
-        Book expectedBook = createBookEntity();
+        Book previousBook = createBookEntity();
+        Category newCategory = new Category(51L, "New Category Name");
+        Book updatedBook = Book.builder()
+                .id(bookId)
+                .name("New Book Name")
+                .author("Author Name")
+                .category(new Category(null, newCategory.getName()))
+                .publicationDate(previousBook.getPublicationDate())
+                .build();
+        String previousKey = previousBook.getName() + "-" + previousBook.getAuthor();
+        String newKey = updatedBook.getName() + "-" + updatedBook.getAuthor();
+        bookByNameAndAuthorCache.put(previousKey, previousBook);
+        bookByNameAndAuthorCache.put(newKey, null);
 
-        Mockito.when(categoryRepository.findCategoryByName(categoryName))
-                .thenReturn(Optional.empty());
-        Mockito.when(categoryRepository.save(newCategory))
-                .thenReturn(createdCategory);
-        Mockito.when(bookRepository.save(expectedBook))
-                .thenReturn(expectedBook);
-        Mockito.when(bookRepository.findById(bookId)).thenReturn(Optional.of(expectedBook));
+        Mockito.when(bookRepository.findById(bookId))
+                .thenReturn(Optional.of(previousBook));
+        Mockito.when(categoryResolver.resolveCategory(newCategory.getName()))
+                .thenReturn(newCategory);
+        Mockito.when(bookRepository.save(updatedBook))
+                .thenReturn(updatedBook);
+
+        service.updateBook(updatedBook);
+
+        Mockito.verify(categoryVersionRegistry, Mockito.times(1))
+                .incrementVersions(List.of("Category Name", newCategory.getName()));
+        Mockito.verify(categoryBookCache, Mockito.times(1))
+                .moveBook(bookId, "Category Name", newCategory.getName());
+
+        Assertions.assertNull(bookByNameAndAuthorCache.get(previousKey));
+        Assertions.assertEquals(updatedBook, bookByNameAndAuthorCache.get(newKey, Book.class));
+        Assertions.assertEquals(updatedBook, bookByIdCache.get(bookId, Book.class));
+    }
 
-        Book actualBook = service.updateBook(expectedBook);
+    @Test
+    public void whenUpdateBookToNameAndAuthorOfAnotherBook_thenEvictPreviousAndNewKeys() {
+        Long bookId = 10L;
+        Book previousBook = createBookEntity();
+        Book updatedBook = Book.builder()
+                .id(bookId)
+                .name("Other Book Name")
+                .author("Author Name")
+                .category(new Category(null, "Category Name"))
+                .publicationDate(previousBook.getPublicationDate())
+                .build();
+        String previousKey = previousBook.getName() + "-" + previousBook.getAuthor();
+        String newKey = updatedBook.getName() + "-" + updatedBook.getAuthor();
+        bookByNameAndAuthorCache.put(previousKey, previousBook);
+        bookByNameAndAuthorCache.put(newKey, createBookEntity());
 
-        Mockito.verify(categoryRepository, Mockito.times(1))
-                .findCategoryByName(categoryName);
-        Mockito.verify(categoryRepository, Mockito.times(1))
-                .save(newCategory);
-        Mockito.verify(bookRepository, Mockito.times(1))
-                .save(expectedBook);
-        Mockito.verify(bookRepository, Mockito.times(1))
-                .findById(bookId);
+        Mockito.when(bookRepository.findById(bookId))
+                .thenReturn(Optional.of(previousBook));
+        Mockito.when(categoryResolver.resolveCategory("Category Name"))
+                .thenReturn(createCategoryEntity());
+        Mockito.when(bookBloomFilter.add(updatedBook.getName(), updatedBook.getAuthor()))
+                .thenReturn(true);
+        Mockito.when(bookRepository.save(updatedBook))
+                .thenReturn(updatedBook);
+
+        service.updateBook(updatedBook);
+
+        Assertions.assertNull(bookByNameAndAuthorCache.get(previousKey));
+        Assertions.assertNull(bookByNameAndAuthorCache.get(newKey));
+        Assertions.assertEquals(updatedBook, bookByIdCache.get(bookId, Book.class));
+    }
 
-        Assertions.assertEquals(expectedBook, actualBook, "Returned not expected book.");
+    @Test
+    public void whenUpdateBookWithLowerIdDuplicate_thenEvictKey() {
+        Long bookId = 10L;
+        Book book = createBookEntity();
+        Book duplicateBook = Book.builder()
+                .id(5L)
+                .name(book.getName())
+                .author(book.getAuthor())
+                .category(createCategoryEntity())
+                .publicationDate(book.getPublicationDate())
+                .build();
+        String key = book.getName() + "-" + book.getAuthor();
+        bookByNameAndAuthorCache.put(key, duplicateBook);
+
+        Mockito.when(bookRepository.findById(bookId))
+                .thenReturn(Optional.of(createBookEntity()));
+        Mockito.when(categoryResolver.resolveCategory("Category Name"))
+                .thenReturn(createCategoryEntity());
+        Mockito.when(bookBloomFilter.add(book.getName(), book.getAuthor()))
+                .thenReturn(true);
+        Mockito.when(bookRepository.save(book))
+                .thenReturn(book);
+        Mockito.when(bookRepository.findFirstBookByNameAndAuthorOrderByIdAsc(book.getName(), book.getAuthor()))
+                .thenReturn(Optional.of(duplicateBook));
+
+        service.updateBook(book);
+
+        Assertions.assertNull(bookByNameAndAuthorCache.get(key));
+        Assertions.assertEquals(book, bookByIdCache.get(bookId, Book.class));
+    }
+
+    @Test
+    public void whenUpdateBookWithHigherIdDuplicate_thenWriteKey() {
+        Long bookId = 10L;
+        Book book = createBookEntity();
+        String key = book.getName() + "-" + book.getAuthor();
+
+        Mockito.when(bookRepository.findById(bookId))
+                .thenReturn(Optional.of(createBookEntity()));
+        Mockito.when(categoryResolver.resolveCategory("Category Name"))
+                .thenReturn(createCategoryEntity());
+        Mockito.when(bookBloomFilter.add(book.getName(), book.getAuthor()))
+                .thenReturn(true);
+        Mockito.when(bookRepository.save(book))
+                .thenReturn(book);
+        Mockito.when(bookRepository.findFirstBookByNameAndAuthorOrderByIdAsc(book.getName(), book.getAuthor()))
+                .thenReturn(Optional.of(book));
+
+        service.updateBook(book);
+
+        Assertions.assertEquals(book, bookByNameAndAuthorCache.get(key, Book.class));
+    }
+
+    @Test
+    public void whenUpdateBookByNonexistentId_thenThrowError() {
+        Long bookId = 10L;
+        Book book = createBookEntity();
+
+        Mockito.when(bookRepository.findById(bookId))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertThrows(
+                EntityNotFoundException.class,
+                () -> service.updateBook(book),
+                "Expected 'updateBook(Book book)' to throw, but it didn't."
+        );
+
+        Mockito.verifyNoInteractions(categoryResolver);
+        Mockito.verify(bookRepository, Mockito.never())
+                .save(book);
     }
 
     @Test
@@ -231,6 +591,21 @@ public class DatabaseBookServiceTests {
         Mockito.verify(bookRepository, Mockito.times(1)).deleteBookById(bookId);
     }
 
+    @Test
+    public void whenDeleteBookById_thenEvictCachedBook() {
+        Book book = createBookEntity();
+        bookByIdCache.put(book.getId(), book);
+        bookByNameAndAuthorCache.put(book.getName() + "-" + book.getAuthor(), book);
+
+        Mockito.when(bookRepository.deleteBookById(book.getId()))
+                .thenReturn(List.of(book));
+
+        service.deleteBookById(book.getId());
+
+        Assertions.assertNull(bookByIdCache.get(book.getId()));
+        Assertions.assertNull(bookByNameAndAuthorCache.get(book.getName() + "-" + book.getAuthor()));
+    }
+
     private Book createBookEntity() {
         return Book.builder()
                 .id(10L)
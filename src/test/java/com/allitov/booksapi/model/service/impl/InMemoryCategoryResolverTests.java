@@ -0,0 +1,120 @@
+package com.allitov.booksapi.model.service.impl;
+
+import com.allitov.booksapi.model.data.Category;
+import com.allitov.booksapi.model.repository.CategoryRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class InMemoryCategoryResolverTests {
+
+    private final CategoryRepository categoryRepository = Mockito.mock(CategoryRepository.class);
+
+    private final InMemoryCategoryResolver resolver = new InMemoryCategoryResolver(categoryRepository);
+
+    @Test
+    public void whenResolveLoadedCategory_thenReturnCategoryWithoutQuery() {
+        Category category = createCategoryEntity();
+
+        Mockito.when(categoryRepository.findAll())
+                .thenReturn(List.of(category));
+
+        resolver.loadCategories();
+        Category actualCategory = resolver.resolveCategory(category.getName());
+
+        Mockito.verify(categoryRepository, Mockito.times(1))
+                .findAll();
+        Mockito.verifyNoMoreInteractions(categoryRepository);
+
+        Assertions.assertEquals(category, actualCategory, "Returned not expected category.");
+    }
+
+    @Test
+    public void whenResolveNewCategory_thenInsertCategoryOnce() {
+        Category category = createCategoryEntity();
+
+        Mockito.when(categoryRepository.insertCategoryIfAbsent(category.getName()))
+                .thenReturn(Optional.of(category.getId()));
+
+        Category firstCategory = resolver.resolveCategory(category.getName());
+        Category secondCategory = resolver.resolveCategory(category.getName());
+
+        Mockito.verify(categoryRepository, Mockito.times(1))
+                .insertCategoryIfAbsent(category.getName());
+        Mockito.verify(categoryRepository, Mockito.never())
+                .findCategoryByName(category.getName());
+
+        Assertions.assertEquals(category, firstCategory, "Returned not expected category.");
+        Assertions.assertEquals(category, secondCategory, "Returned not expected category.");
+    }
+
+    @Test
+    public void whenResolveConcurrentlyCreatedCategory_thenReturnExistingCategory() {
+        Category category = createCategoryEntity();
+
+        Mockito.when(categoryRepository.insertCategoryIfAbsent(category.getName()))
+                .thenReturn(Optional.empty());
+        Mockito.when(categoryRepository.findCategoryByName(category.getName()))
+                .thenReturn(Optional.of(category));
+
+        Category actualCategory = resolver.resolveCategory(category.getName());
+
+        Mockito.verify(categoryRepository, Mockito.times(1))
+                .insertCategoryIfAbsent(category.getName());
+        Mockito.verify(categoryRepository, Mockito.times(1))
+                .findCategoryByName(category.getName());
+
+        Assertions.assertEquals(category, actualCategory, "Returned not expected category.");
+    }
+
+    @Test
+    public void whenResolveCategories_thenInsertAndQueryUnknownCategoriesOnce() {
+        Category loadedCategory = createCategoryEntity();
+        Category existingCategory = new Category(51L, "Existing Category");
+        Category newCategory = new Category(52L, "New Category");
+        Category otherNewCategory = new Category(53L, "Other New Category");
+        String[] unknownCategoryNames = {existingCategory.getName(), newCategory.getName(), otherNewCategory.getName()};
+
+        Mockito.when(categoryRepository.findAll())
+                .thenReturn(List.of(loadedCategory));
+        Mockito.when(categoryRepository.insertCategoriesIfAbsent(unknownCategoryNames))
+                .thenReturn(List.of(newCategory, otherNewCategory));
+        Mockito.when(categoryRepository.findCategoriesByNameIn(List.of(existingCategory.getName())))
+                .thenReturn(List.of(existingCategory));
+
+        resolver.loadCategories();
+        Map<String, Category> actualCategories = resolver.resolveCategories(List.of(
+                loadedCategory.getName(), existingCategory.getName(), newCategory.getName(),
+                otherNewCategory.getName(), newCategory.getName()));
+
+        Mockito.verify(categoryRepository, Mockito.times(1))
+                .insertCategoriesIfAbsent(unknownCategoryNames);
+        Mockito.verify(categoryRepository, Mockito.times(1))
+                .findCategoriesByNameIn(List.of(existingCategory.getName()));
+        Mockito.verify(categoryRepository, Mockito.never())
+                .insertCategoryIfAbsent(ArgumentMatchers.anyString());
+
+        Assertions.assertEquals(
+                Map.of(
+                        loadedCategory.getName(), loadedCategory,
+                        existingCategory.getName(), existingCategory,
+                        newCategory.getName(), newCategory,
+                        otherNewCategory.getName(), otherNewCategory
+                ),
+                actualCategories,
+                "Returned not expected categories."
+        );
+    }
+
+    private Category createCategoryEntity() {
+        return Category.builder()
+                .id(50L)
+                .name("Category Name")
+                .build();
+    }
+}
@@ -1,32 +1,61 @@
 package com.allitov.booksapi.web.controller;
 
+import com.allitov.booksapi.cache.CategoryVersion;
+import com.allitov.booksapi.cache.CategoryVersionRegistry;
+import com.allitov.booksapi.cache.ResponseBodyCache;
 import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.BookImportResult;
+import com.allitov.booksapi.model.data.BookKey;
 import com.allitov.booksapi.model.data.Category;
+import com.allitov.booksapi.model.service.BookExportService;
+import com.allitov.booksapi.model.service.BookFileFormat;
+import com.allitov.booksapi.model.service.BookImportService;
 import com.allitov.booksapi.model.service.BookService;
 import com.allitov.booksapi.util.TestUtils;
+import com.allitov.booksapi.web.dto.request.BookBatchRequest;
+import com.allitov.booksapi.web.dto.request.BookKeyRequest;
+import com.allitov.booksapi.web.dto.request.BookLookupRequest;
 import com.allitov.booksapi.web.dto.request.BookRequest;
+import com.allitov.booksapi.web.dto.response.BookImportResponse;
 import com.allitov.booksapi.web.dto.response.BookListResponse;
+import com.allitov.booksapi.web.dto.response.BookLookupResponse;
 import com.allitov.booksapi.web.dto.response.BookResponse;
+import com.allitov.booksapi.web.dto.response.BookSearchResponse;
+import com.allitov.booksapi.web.dto.response.ErrorResponse;
+import com.allitov.booksapi.web.converter.ResponseBodyEncoder;
+import com.allitov.booksapi.web.converter.ResponseFormat;
 import com.allitov.booksapi.web.mapper.BookMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import net.javacrumbs.jsonunit.JsonAssert;
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @WebMvcTest(BookController.class)
+@Import(ResponseBodyEncoder.class)
 public class BookControllerTests {
 
     @Autowired
@@ -41,8 +70,71 @@ public class BookControllerTests {
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private BookExportService bookExportService;
+
+    @MockBean
+    private BookImportService bookImportService;
+
+    @MockBean
+    private CategoryVersionRegistry categoryVersionRegistry;
+
+    @MockBean
+    private ResponseBodyCache responseBodyCache;
+
+    @Autowired
+    private ResponseBodyEncoder responseBodyEncoder;
+
+    @BeforeEach
+    public void beforeEach() {
+        Mockito.when(categoryVersionRegistry.getVersion(ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> createCategoryVersion(invocation.getArgument(0)));
+    }
+
     @Test
-    public void whenGetBookByNameAndAuthor_thenReturnBookResponse() throws Exception {
+    public void whenGetBookById_thenReturnBookResponse() throws Exception {
+        Book foundBook = createBookEntity();
+        BookResponse response = createBookResponse(foundBook);
+
+        Mockito.when(bookService.findBookById(foundBook.getId()))
+                .thenReturn(foundBook);
+        Mockito.when(bookMapper.bookToResponse(foundBook))
+                .thenReturn(response);
+
+        String actualResponse = mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/book/{id}", foundBook.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG,
+                        createCategoryVersion(foundBook.getCategory().getName()).eTag()))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Mockito.verify(bookService, Mockito.times(1))
+                .findBookById(foundBook.getId());
+
+        String expectedResponse = TestUtils.readStringFromResource(
+                "response/controller/get_book_by_name_and_author_response.json");
+
+        JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
+    }
+
+    @Test
+    public void whenGetBookByNonexistentId_thenReturnNotFound() throws Exception {
+        Long bookId = 42L;
+
+        Mockito.when(bookService.findBookById(bookId))
+                .thenThrow(new EntityNotFoundException(String.format("Book with id '%d' not found", bookId)));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/book/{id}", bookId))
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errorMessage")
+                        .value("Book with id '42' not found"));
+    }
+
+    @Test
+    public void whenGetBookByNameAndAuthor_thenReturnBookResponseAndCacheOutdatedBody() throws Exception {
         String bookName = "Book Name";
         String authorName = "Author Name";
         Book foundBook = createBookEntity();
@@ -56,6 +148,7 @@ public class BookControllerTests {
         String actualResponse = mockMvc.perform(MockMvcRequestBuilders
                 .get(String.format("/api/v1/book?name=%s&author=%s", bookName, authorName)))
                 .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.ETAG))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
@@ -64,6 +157,12 @@ public class BookControllerTests {
                 .findBookByNameAndAuthor(bookName, authorName);
         Mockito.verify(bookMapper, Mockito.times(1))
                 .bookToResponse(foundBook);
+        Mockito.verify(responseBodyCache, Mockito.times(1)).putOutdated(
+                ArgumentMatchers.eq(ResponseBodyCache.BOOK_BY_NAME_AND_AUTHOR),
+                ArgumentMatchers.eq(bookName + "-" + authorName + "-json"),
+                ArgumentMatchers.eq(foundBook.getCategory().getName()),
+                ArgumentMatchers.any()
+        );
 
         String expectedResponse = TestUtils.readStringFromResource(
                 "response/controller/get_book_by_name_and_author_response.json");
@@ -71,6 +170,165 @@ public class BookControllerTests {
         JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
     }
 
+    @Test
+    public void whenGetBookByNameAndAuthorWithMatchingETag_thenReturnNotModified() throws Exception {
+        String bookName = "Book Name";
+        String authorName = "Author Name";
+        Book foundBook = createBookEntity();
+        String eTag = createCategoryVersion(foundBook.getCategory().getName()).eTag();
+
+        Mockito.when(responseBodyCache.get(
+                ResponseBodyCache.BOOK_BY_NAME_AND_AUTHOR, bookName + "-" + authorName + "-json"))
+                .thenReturn(new ResponseBodyCache.CachedResponseBody(
+                        foundBook.getCategory().getName(), -1L, "{}".getBytes(StandardCharsets.UTF_8)));
+        Mockito.when(bookService.findBookByNameAndAuthor(bookName, authorName))
+                .thenReturn(foundBook);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get(String.format("/api/v1/book?name=%s&author=%s", bookName, authorName))
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        Mockito.verify(bookMapper, Mockito.never())
+                .bookToResponse(foundBook);
+    }
+
+    @Test
+    public void whenGetBookByNameAndAuthorWithCachedBody_thenReturnCachedBody() throws Exception {
+        String bookName = "Book Name";
+        String authorName = "Author Name";
+        String categoryName = "Category Name";
+        byte[] body = TestUtils.readStringFromResource(
+                "response/controller/get_book_by_name_and_author_response.json").getBytes(StandardCharsets.UTF_8);
+
+        Mockito.when(responseBodyCache.get(
+                ResponseBodyCache.BOOK_BY_NAME_AND_AUTHOR, bookName + "-" + authorName + "-json"))
+                .thenReturn(new ResponseBodyCache.CachedResponseBody(
+                        categoryName, createCategoryVersion(categoryName).version(), body));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get(String.format("/api/v1/book?name=%s&author=%s", bookName, authorName)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.header().string(
+                        HttpHeaders.ETAG, createCategoryVersion(categoryName).eTag()))
+                .andExpect(MockMvcResultMatchers.content().bytes(body));
+
+        Mockito.verifyNoInteractions(bookService, bookMapper);
+    }
+
+    @Test
+    public void whenGetBookByNameAndAuthorWithStaleCachedBody_thenRenderBody() throws Exception {
+        String bookName = "Book Name";
+        String authorName = "Author Name";
+        Book foundBook = createBookEntity();
+        BookResponse response = createBookResponse(foundBook);
+        String key = bookName + "-" + authorName + "-json";
+
+        Mockito.when(responseBodyCache.get(ResponseBodyCache.BOOK_BY_NAME_AND_AUTHOR, key))
+                .thenReturn(new ResponseBodyCache.CachedResponseBody(
+                        foundBook.getCategory().getName(), 0L, "{}".getBytes(StandardCharsets.UTF_8)));
+        Mockito.when(bookService.findBookByNameAndAuthor(bookName, authorName))
+                .thenReturn(foundBook);
+        Mockito.when(bookMapper.bookToResponse(foundBook))
+                .thenReturn(response);
+
+        String actualResponse = mockMvc.perform(MockMvcRequestBuilders
+                .get(String.format("/api/v1/book?name=%s&author=%s", bookName, authorName)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Mockito.verify(responseBodyCache, Mockito.times(1)).put(
+                ArgumentMatchers.eq(ResponseBodyCache.BOOK_BY_NAME_AND_AUTHOR),
+                ArgumentMatchers.eq(key),
+                ArgumentMatchers.eq(createCategoryVersion(foundBook.getCategory().getName())),
+                ArgumentMatchers.any()
+        );
+
+        String expectedResponse = TestUtils.readStringFromResource(
+                "response/controller/get_book_by_name_and_author_response.json");
+
+        JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
+    }
+
+    @Test
+    public void whenCategoryChangedWhileLoadingBookByNameAndAuthor_thenCacheOutdatedBody() throws Exception {
+        String bookName = "Book Name";
+        String authorName = "Author Name";
+        Book foundBook = createBookEntity();
+        BookResponse response = createBookResponse(foundBook);
+        String categoryName = foundBook.getCategory().getName();
+        String key = bookName + "-" + authorName + "-json";
+
+        Mockito.when(responseBodyCache.get(ResponseBodyCache.BOOK_BY_NAME_AND_AUTHOR, key))
+                .thenReturn(new ResponseBodyCache.CachedResponseBody(
+                        categoryName, 0L, "{}".getBytes(StandardCharsets.UTF_8)));
+        Mockito.when(categoryVersionRegistry.getVersion(categoryName))
+                .thenReturn(createCategoryVersion(categoryName))
+                .thenReturn(new CategoryVersion(categoryName, 8L, Instant.parse("2024-01-02T00:00:00Z")));
+        Mockito.when(bookService.findBookByNameAndAuthor(bookName, authorName))
+                .thenReturn(foundBook);
+        Mockito.when(bookMapper.bookToResponse(foundBook))
+                .thenReturn(response);
+
+        String actualResponse = mockMvc.perform(MockMvcRequestBuilders
+                .get(String.format("/api/v1/book?name=%s&author=%s", bookName, authorName)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Mockito.verify(responseBodyCache, Mockito.never()).put(
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.verify(responseBodyCache, Mockito.times(1)).putOutdated(
+                ArgumentMatchers.eq(ResponseBodyCache.BOOK_BY_NAME_AND_AUTHOR),
+                ArgumentMatchers.eq(key),
+                ArgumentMatchers.eq(categoryName),
+                ArgumentMatchers.any()
+        );
+
+        String expectedResponse = TestUtils.readStringFromResource(
+                "response/controller/get_book_by_name_and_author_response.json");
+
+        JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
+    }
+
+    @Test
+    public void whenGetBookByNameAndAuthorMovedToOtherCategory_thenCacheOutdatedBodyOfNewCategory() throws Exception {
+        String bookName = "Book Name";
+        String authorName = "Author Name";
+        Book foundBook = createBookEntity();
+        BookResponse response = createBookResponse(foundBook);
+        String key = bookName + "-" + authorName + "-json";
+
+        Mockito.when(responseBodyCache.get(ResponseBodyCache.BOOK_BY_NAME_AND_AUTHOR, key))
+                .thenReturn(new ResponseBodyCache.CachedResponseBody(
+                        "Previous Category", 0L, "{}".getBytes(StandardCharsets.UTF_8)));
+        Mockito.when(bookService.findBookByNameAndAuthor(bookName, authorName))
+                .thenReturn(foundBook);
+        Mockito.when(bookMapper.bookToResponse(foundBook))
+                .thenReturn(response);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get(String.format("/api/v1/book?name=%s&author=%s", bookName, authorName)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.ETAG));
+
+        Mockito.verify(bookService, Mockito.times(1))
+                .findBookByNameAndAuthor(bookName, authorName);
+        Mockito.verify(responseBodyCache, Mockito.times(1)).putOutdated(
+                ArgumentMatchers.eq(ResponseBodyCache.BOOK_BY_NAME_AND_AUTHOR),
+                ArgumentMatchers.eq(key),
+                ArgumentMatchers.eq(foundBook.getCategory().getName()),
+                ArgumentMatchers.any()
+        );
+    }
+
     @Test
     public void whenGetNonexistentBookByNameAndAuthor_thenReturnErrorMessage() throws Exception {
         String bookName= "Book Name";
@@ -89,29 +347,33 @@ public class BookControllerTests {
     @Test
     public void whenGetBooksByCategoryName_thenReturnBooks() throws Exception {
         String categoryName = "Category Name";
-        List<Book> foundBooks = new ArrayList<>();
-        foundBooks.add(createBookEntity());
+        Long cursor = 0L;
+        int limit = 50;
+        List<BookResponse> foundBooks = new ArrayList<>();
+        foundBooks.add(createBookResponse(createBookEntity()));
         BookListResponse response = new BookListResponse();
-        List<BookResponse> bookResponses = new ArrayList<>();
-        bookResponses.add(createBookResponse(createBookEntity()));
-        response.setBooks(bookResponses);
+        response.setBooks(foundBooks);
 
-        Mockito.when(bookService.findBooksByCategoryName(categoryName))
+        Mockito.when(bookService.findBooksByCategoryName(categoryName, cursor, limit))
                 .thenReturn(foundBooks);
-        Mockito.when(bookMapper.bookListToBookListResponse(foundBooks))
+        Mockito.when(bookMapper.responseListToBookListResponse(foundBooks, limit))
                 .thenReturn(response);
 
         String actualResponse = mockMvc.perform(MockMvcRequestBuilders
                 .get(String.format("/api/v1/book/category?name=%s", categoryName)))
                 .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(
+                        HttpHeaders.ETAG, createCategoryVersion(categoryName).eTag()))
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
 
         Mockito.verify(bookService, Mockito.times(1))
-                .findBooksByCategoryName(categoryName);
+                .findBooksByCategoryName(categoryName, cursor, limit);
         Mockito.verify(bookMapper, Mockito.times(1))
-                .bookListToBookListResponse(foundBooks);
+                .responseListToBookListResponse(foundBooks, limit);
 
         String expectedResponse = TestUtils.readStringFromResource(
                 "response/controller/get_books_by_category_name_response.json");
@@ -119,6 +381,228 @@ public class BookControllerTests {
         JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
     }
 
+    @Test
+    public void whenGetBooksByCategoryNameWithMatchingETag_thenReturnNotModified() throws Exception {
+        String categoryName = "Category Name";
+        String eTag = createCategoryVersion(categoryName).eTag();
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get(String.format("/api/v1/book/category?name=%s", categoryName))
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        Mockito.verifyNoInteractions(bookService, bookMapper);
+    }
+
+    @Test
+    public void whenGetBooksByCategoryNameWithCachedBody_thenReturnCachedBody() throws Exception {
+        String categoryName = "Category Name";
+        byte[] body = TestUtils.readStringFromResource(
+                "response/controller/get_books_by_category_name_response.json").getBytes(StandardCharsets.UTF_8);
+
+        Mockito.when(responseBodyCache.get(ResponseBodyCache.BOOKS_BY_CATEGORY_NAME, categoryName + "-0-50-json"))
+                .thenReturn(new ResponseBodyCache.CachedResponseBody(
+                        categoryName, createCategoryVersion(categoryName).version(), body));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get(String.format("/api/v1/book/category?name=%s", categoryName)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().bytes(body));
+
+        Mockito.verifyNoInteractions(bookService, bookMapper);
+    }
+
+    @Test
+    public void whenGetBooksByCategoryNameAcceptingProtobuf_thenReturnProtobufBooks() throws Exception {
+        String categoryName = "Category Name";
+        List<BookResponse> foundBooks = List.of(createBookResponse(createBookEntity()));
+        BookListResponse response = new BookListResponse(foundBooks, null);
+
+        Mockito.when(bookService.findBooksByCategoryName(categoryName, 0L, 50))
+                .thenReturn(foundBooks);
+        Mockito.when(bookMapper.responseListToBookListResponse(foundBooks, 50))
+                .thenReturn(response);
+
+        byte[] actualResponse = mockMvc.perform(MockMvcRequestBuilders
+                .get(String.format("/api/v1/book/category?name=%s", categoryName))
+                .header(HttpHeaders.ACCEPT, ResponseFormat.PROTOBUF.getMediaType()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(ResponseFormat.PROTOBUF.getMediaType()))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(MockMvcResultMatchers.header().string(
+                        HttpHeaders.ETAG, ResponseFormat.PROTOBUF.eTag(createCategoryVersion(categoryName))))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        Mockito.verify(responseBodyCache, Mockito.times(1)).put(
+                ArgumentMatchers.eq(ResponseBodyCache.BOOKS_BY_CATEGORY_NAME),
+                ArgumentMatchers.eq(categoryName + "-0-50-protobuf"),
+                ArgumentMatchers.eq(createCategoryVersion(categoryName)),
+                ArgumentMatchers.eq(actualResponse)
+        );
+
+        Assertions.assertEquals(response,
+                responseBodyEncoder.decode(ResponseFormat.PROTOBUF, actualResponse, BookListResponse.class));
+    }
+
+    @Test
+    public void whenGetBooksByCategoryNameWithCursor_thenReturnNextPage() throws Exception {
+        String categoryName = "Category Name";
+        Long cursor = 5L;
+        int limit = 1;
+        List<BookResponse> foundBooks = new ArrayList<>();
+        foundBooks.add(createBookResponse(createBookEntity()));
+        BookListResponse response = new BookListResponse();
+        response.setBooks(foundBooks);
+        response.setNextCursor(10L);
+
+        Mockito.when(bookService.findBooksByCategoryName(categoryName, cursor, limit))
+                .thenReturn(foundBooks);
+        Mockito.when(bookMapper.responseListToBookListResponse(foundBooks, limit))
+                .thenReturn(response);
+
+        String actualResponse = mockMvc.perform(MockMvcRequestBuilders
+                .get(String.format("/api/v1/book/category?name=%s&cursor=%d&limit=%d", categoryName, cursor, limit)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Mockito.verify(bookService, Mockito.times(1))
+                .findBooksByCategoryName(categoryName, cursor, limit);
+
+        String expectedResponse = TestUtils.readStringFromResource(
+                "response/controller/get_books_by_category_name_next_page_response.json");
+
+        JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
+    }
+
+    @Test
+    public void whenGetBooksByCategoryNameWithInvalidLimit_thenReturnBadRequest() throws Exception {
+        String categoryName = "Category Name";
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get(String.format("/api/v1/book/category?name=%s&limit=%d", categoryName, 1001)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Mockito.verifyNoInteractions(bookService);
+    }
+
+    @Test
+    public void whenSearchBooks_thenReturnBooks() throws Exception {
+        String query = "Book Name";
+        int page = 0;
+        int size = 1;
+        List<BookResponse> foundBooks = new ArrayList<>();
+        foundBooks.add(createBookResponse(createBookEntity()));
+        BookSearchResponse response = new BookSearchResponse();
+        response.setBooks(foundBooks);
+        response.setNextPage(1);
+
+        Mockito.when(bookService.searchBooks(query, page, size))
+                .thenReturn(foundBooks);
+        Mockito.when(bookMapper.responseListToBookSearchResponse(foundBooks, page, size))
+                .thenReturn(response);
+
+        String actualResponse = mockMvc.perform(MockMvcRequestBuilders
+                .get(String.format("/api/v1/book/search?q=%s&size=%d", query, size)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Mockito.verify(bookService, Mockito.times(1))
+                .searchBooks(query, page, size);
+        Mockito.verify(bookMapper, Mockito.times(1))
+                .responseListToBookSearchResponse(foundBooks, page, size);
+
+        String expectedResponse = TestUtils.readStringFromResource(
+                "response/controller/search_books_response.json");
+
+        JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
+    }
+
+    @Test
+    public void whenSearchBooksWithShortQuery_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/book/search?q=ab"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Mockito.verifyNoInteractions(bookService);
+    }
+
+    @Test
+    public void whenExportBooksAsCsv_thenStreamBooksFile() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("id\n10\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(bookExportService).exportBooks(ArgumentMatchers.eq(BookFileFormat.CSV), ArgumentMatchers.any());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/book/export?format=csv"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        Assertions.assertEquals(Duration.ofMinutes(30).toMillis(), result.getRequest().getAsyncContext().getTimeout(),
+                "Export started with not expected timeout.");
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(MockMvcResultMatchers.header().string(
+                        HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"books.csv\""))
+                .andExpect(MockMvcResultMatchers.content().string("id\n10\n"));
+
+        Mockito.verify(bookExportService, Mockito.times(1))
+                .exportBooks(ArgumentMatchers.eq(BookFileFormat.CSV), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void whenExportBooksWithUnknownFormat_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/book/export?format=xml"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Mockito.verifyNoInteractions(bookExportService);
+    }
+
+    @Test
+    public void whenErrorWithoutAcceptHeader_thenReturnJsonErrorResponse() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/book/export?format=xml"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errorMessage").exists());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/book/export?format=xml")
+                .header(HttpHeaders.ACCEPT, MediaType.ALL_VALUE))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void whenErrorAcceptingProtobuf_thenReturnProtobufErrorResponse() throws Exception {
+        byte[] actualResponse = mockMvc.perform(MockMvcRequestBuilders
+                .get("/api/v1/book/export?format=xml")
+                .header(HttpHeaders.ACCEPT, ResponseFormat.PROTOBUF.getMediaType()))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().contentType(ResponseFormat.PROTOBUF.getMediaType()))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        Assertions.assertNotNull(
+                responseBodyEncoder.decode(ResponseFormat.PROTOBUF, actualResponse, ErrorResponse.class)
+                        .getErrorMessage(),
+                "Returned not expected error response.");
+    }
+
     @Test
     public void whenCreateBook_thenReturnLocation() throws Exception {
         Long createdBookId = 10L;
@@ -149,6 +633,169 @@ public class BookControllerTests {
                 .createBook(book);
     }
 
+    @Test
+    public void whenCreateBooks_thenReturnCreatedBooks() throws Exception {
+        Book book = createBookEntity();
+        List<Book> books = List.of(book);
+        BookBatchRequest request = new BookBatchRequest(List.of(createBookRequest(book)));
+        BookListResponse response = new BookListResponse();
+        response.setBooks(List.of(createBookResponse(book)));
+
+        Mockito.when(bookMapper.batchRequestToBookList(request))
+                .thenReturn(books);
+        Mockito.when(bookService.createBooks(books))
+                .thenReturn(books);
+        Mockito.when(bookMapper.bookListToBookListResponse(books))
+                .thenReturn(response);
+
+        String actualResponse = mockMvc.perform(MockMvcRequestBuilders
+                .post("/api/v1/book/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Mockito.verify(bookMapper, Mockito.times(1))
+                .batchRequestToBookList(request);
+        Mockito.verify(bookService, Mockito.times(1))
+                .createBooks(books);
+
+        String expectedResponse = TestUtils.readStringFromResource(
+                "response/controller/create_books_response.json");
+
+        JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
+    }
+
+    @Test
+    public void whenCreateEmptyBookBatch_thenReturnBadRequest() throws Exception {
+        BookBatchRequest request = new BookBatchRequest(List.of());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/api/v1/book/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Mockito.verifyNoInteractions(bookService);
+    }
+
+    @Test
+    public void whenLookupBooksByIds_thenReturnBooksInRequestOrder() throws Exception {
+        Book book = createBookEntity();
+        List<Long> ids = List.of(book.getId(), 11L);
+        BookLookupRequest request = BookLookupRequest.builder()
+                .ids(ids)
+                .books(List.of())
+                .build();
+        List<BookResponse> books = Arrays.asList(createBookResponse(book), null);
+
+        Mockito.when(bookService.findBooksByIds(ids))
+                .thenReturn(books);
+        Mockito.when(bookMapper.responseListToBookLookupResponse(books))
+                .thenReturn(new BookLookupResponse(books));
+
+        String actualResponse = mockMvc.perform(MockMvcRequestBuilders
+                .post("/api/v1/book/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Mockito.verify(bookService, Mockito.times(1))
+                .findBooksByIds(ids);
+        Mockito.verify(bookService, Mockito.never())
+                .findBooksByKeys(ArgumentMatchers.any());
+
+        String expectedResponse = TestUtils.readStringFromResource(
+                "response/controller/lookup_books_response.json");
+
+        JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
+    }
+
+    @Test
+    public void whenLookupBooksByNamesAndAuthors_thenReturnBooksInRequestOrder() throws Exception {
+        Book book = createBookEntity();
+        BookLookupRequest request = BookLookupRequest.builder()
+                .ids(List.of())
+                .books(List.of(
+                        new BookKeyRequest(book.getName(), book.getAuthor()),
+                        new BookKeyRequest("Missing Book", book.getAuthor())))
+                .build();
+        List<BookKey> keys = List.of(
+                new BookKey(book.getName(), book.getAuthor()),
+                new BookKey("Missing Book", book.getAuthor()));
+        List<BookResponse> books = Arrays.asList(createBookResponse(book), null);
+
+        Mockito.when(bookMapper.lookupRequestToBookKeys(request))
+                .thenReturn(keys);
+        Mockito.when(bookService.findBooksByKeys(keys))
+                .thenReturn(books);
+        Mockito.when(bookMapper.responseListToBookLookupResponse(books))
+                .thenReturn(new BookLookupResponse(books));
+
+        String actualResponse = mockMvc.perform(MockMvcRequestBuilders
+                .post("/api/v1/book/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Mockito.verify(bookService, Mockito.times(1))
+                .findBooksByKeys(keys);
+        Mockito.verify(bookService, Mockito.never())
+                .findBooksByIds(ArgumentMatchers.any());
+
+        String expectedResponse = TestUtils.readStringFromResource(
+                "response/controller/lookup_books_response.json");
+
+        JsonAssert.assertJsonEquals(expectedResponse, actualResponse);
+    }
+
+    @Test
+    public void whenLookupBooksByIdsAndNames_thenReturnBadRequest() throws Exception {
+        BookLookupRequest request = BookLookupRequest.builder()
+                .ids(List.of(10L))
+                .books(List.of(new BookKeyRequest("Book Name", "Author Name")))
+                .build();
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/api/v1/book/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errorMessage")
+                        .value("Either book IDs or book names and authors must be specified"));
+
+        Mockito.verifyNoInteractions(bookService);
+    }
+
+    @Test
+    public void whenImportBooks_thenReturnImportResult() throws Exception {
+        BookImportResult result = new BookImportResult(2L, List.of("Category Name"));
+
+        Mockito.when(bookImportService.importBooks(ArgumentMatchers.eq(BookFileFormat.CSV), ArgumentMatchers.any()))
+                .thenReturn(result);
+        Mockito.when(bookMapper.importResultToResponse(result))
+                .thenReturn(new BookImportResponse(result.importedBooks(), result.categoryNames()));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/api/v1/book/import?format=csv")
+                .contentType("text/csv")
+                .content("name,author,categoryName,publicationDate\n"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.importedBooks").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.categoryNames[0]").value("Category Name"));
+
+        Mockito.verify(bookImportService, Mockito.times(1))
+                .importBooks(ArgumentMatchers.eq(BookFileFormat.CSV), ArgumentMatchers.any());
+    }
+
     @Test
     public void whenUpdateBookById_thenReturnStatusNoContent() throws Exception {
         Long bookId = 10L;
@@ -222,6 +869,10 @@ public class BookControllerTests {
                 .build();
     }
 
+    private CategoryVersion createCategoryVersion(String categoryName) {
+        return new CategoryVersion(categoryName, 3L, Instant.parse("2024-01-01T00:00:00Z"));
+    }
+
     private BookResponse createBookResponse(Book book) {
         return BookResponse.builder()
                 .id(book.getId())
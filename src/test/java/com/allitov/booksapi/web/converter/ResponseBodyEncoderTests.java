@@ -0,0 +1,58 @@
+package com.allitov.booksapi.web.converter;
+
+import com.allitov.booksapi.web.dto.response.BookListResponse;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class ResponseBodyEncoderTests {
+
+    private final ResponseBodyEncoder responseBodyEncoder = new ResponseBodyEncoder(
+            Jackson2ObjectMapperBuilder.json().build(), Jackson2ObjectMapperBuilder.json());
+
+    @Test
+    public void whenEncodeBookListResponse_thenDecodeEqualBookListResponse() throws Exception {
+        BookListResponse response = new BookListResponse(List.of(
+                new BookResponse(1L, "Book Name", "Author Name", "Category Name", LocalDate.of(2012, 12, 12)),
+                new BookResponse(2L, "Другая книга", "Author Name", "Category Name", LocalDate.of(2000, 1, 1))
+        ), 2L);
+
+        for (ResponseFormat format : ResponseFormat.values()) {
+            byte[] body = responseBodyEncoder.encode(format, response);
+
+            Assertions.assertEquals(response, responseBodyEncoder.decode(format, body, BookListResponse.class));
+        }
+    }
+
+    @Test
+    public void whenEncodeInBinaryFormats_thenBodyIsSmallerThanJson() throws Exception {
+        BookListResponse response = new BookListResponse(List.of(
+                new BookResponse(1L, "Book Name", "Author Name", "Category Name", LocalDate.of(2012, 12, 12))
+        ), null);
+        int jsonSize = responseBodyEncoder.encode(ResponseFormat.JSON, response).length;
+
+        Assertions.assertTrue(responseBodyEncoder.encode(ResponseFormat.SMILE, response).length < jsonSize);
+        Assertions.assertTrue(responseBodyEncoder.encode(ResponseFormat.PROTOBUF, response).length < jsonSize);
+    }
+
+    @Test
+    public void whenAcceptHeaderPrefersBinaryFormat_thenSelectBinaryFormat() {
+        Assertions.assertEquals(ResponseFormat.CBOR, ResponseFormat.fromAcceptHeader("application/cbor"));
+        Assertions.assertEquals(ResponseFormat.PROTOBUF, ResponseFormat.fromAcceptHeader(
+                "application/json;q=0.5, application/x-protobuf"));
+        Assertions.assertEquals(ResponseFormat.SMILE, ResponseFormat.fromAcceptHeader(
+                "text/html, application/x-jackson-smile;q=0.9, */*;q=0.1"));
+    }
+
+    @Test
+    public void whenAcceptHeaderMissingOrUnsupported_thenSelectJson() {
+        Assertions.assertEquals(ResponseFormat.JSON, ResponseFormat.fromAcceptHeader(null));
+        Assertions.assertEquals(ResponseFormat.JSON, ResponseFormat.fromAcceptHeader("*/*"));
+        Assertions.assertEquals(ResponseFormat.JSON, ResponseFormat.fromAcceptHeader("text/html"));
+        Assertions.assertEquals(ResponseFormat.JSON, ResponseFormat.fromAcceptHeader("not a media type"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.allitov.booksapi.web.filter;
+
+import com.allitov.booksapi.exception.ExceptionMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+public class ConcurrencyLimitFilterTests {
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+            1, Duration.ofMillis(50), new ObjectMapper());
+
+    @Test
+    public void whenPermitAvailable_thenPassRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest(), response, filterChain);
+
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatus());
+        Assertions.assertNotNull(filterChain.getRequest());
+    }
+
+    @Test
+    public void whenNoPermitAvailable_thenReturnServiceUnavailable() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blockingChain = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), blockingChain);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        entered.await();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest(), response, filterChain);
+        release.countDown();
+        holder.join();
+
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+        Assertions.assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        Assertions.assertTrue(response.getContentAsString().contains(ExceptionMessage.SERVER_BUSY));
+        Assertions.assertNull(filterChain.getRequest());
+    }
+}
@@ -0,0 +1,80 @@
+package com.allitov.booksapi.web.filter;
+
+import com.allitov.booksapi.datasource.ReplicaRoutingContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ReadYourWritesFilterTests {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(
+            Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    public void whenWriteRequest_thenSetCookieAndRequirePrimary() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/book"), response, recordingChain(primaryRequired));
+
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE);
+        Assertions.assertNotNull(cookie);
+        Assertions.assertEquals(String.valueOf(NOW.toEpochMilli()), cookie.getValue());
+        Assertions.assertEquals(5, cookie.getMaxAge());
+        Assertions.assertTrue(primaryRequired.get());
+        Assertions.assertFalse(ReplicaRoutingContext.isPrimaryRequired());
+    }
+
+    @Test
+    public void whenLookupRequest_thenAllowReplicas() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/book/lookup"), response,
+                recordingChain(primaryRequired));
+
+        Assertions.assertFalse(primaryRequired.get());
+        Assertions.assertNull(response.getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE));
+    }
+
+    @Test
+    public void whenReadRequestWithinWindow_thenRequirePrimary() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/book");
+        request.setCookies(new Cookie(
+                ReadYourWritesFilter.LAST_WRITE_COOKIE, String.valueOf(NOW.minusSeconds(2).toEpochMilli())));
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+
+        filter.doFilter(request, new MockHttpServletResponse(), recordingChain(primaryRequired));
+
+        Assertions.assertTrue(primaryRequired.get());
+    }
+
+    @Test
+    public void whenReadRequestAfterWindow_thenAllowReplicas() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/book");
+        request.setCookies(new Cookie(
+                ReadYourWritesFilter.LAST_WRITE_COOKIE, String.valueOf(NOW.minusSeconds(10).toEpochMilli())));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+
+        filter.doFilter(request, response, recordingChain(primaryRequired));
+
+        Assertions.assertFalse(primaryRequired.get());
+        Assertions.assertNull(response.getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE));
+    }
+
+    private FilterChain recordingChain(AtomicBoolean primaryRequired) {
+        return (request, response) -> primaryRequired.set(ReplicaRoutingContext.isPrimaryRequired());
+    }
+}
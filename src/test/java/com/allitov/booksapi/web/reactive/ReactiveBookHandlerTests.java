@@ -0,0 +1,225 @@
+package com.allitov.booksapi.web.reactive;
+
+import com.allitov.booksapi.cache.BookRedisSerializer;
+import com.allitov.booksapi.cache.CacheCodec;
+import com.allitov.booksapi.cache.ReactiveCacheClient;
+import com.allitov.booksapi.configuration.AppCacheProperties;
+import com.allitov.booksapi.exception.ExceptionMessage;
+import com.allitov.booksapi.model.data.Book;
+import com.allitov.booksapi.model.data.Category;
+import com.allitov.booksapi.model.repository.ReactiveBookRepository;
+import com.allitov.booksapi.web.dto.response.BookResponse;
+import com.allitov.booksapi.web.mapper.BookMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class ReactiveBookHandlerTests {
+
+    private final ReactiveBookRepository bookRepository = Mockito.mock(ReactiveBookRepository.class);
+
+    private final ReactiveCacheClient cacheClient = Mockito.mock(ReactiveCacheClient.class);
+
+    private final ReactiveBookHandler handler = new ReactiveBookHandler(bookRepository, cacheClient, new BookMapper());
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final WebTestClient webTestClient = WebTestClient.bindToRouterFunction(RouterFunctions.route()
+                    .GET("/api/v2/book", handler::getBookByNameAndAuthor)
+                    .GET("/api/v2/book/category", handler::getBooksByCategoryName)
+                    .build())
+            .handlerStrategies(HandlerStrategies.builder()
+                    .codecs(configurer -> {
+                        configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                        configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                    })
+                    .build())
+            .build();
+
+    @Test
+    public void whenGetCachedBookByNameAndAuthor_thenReturnBookResponseWithoutQuery() {
+        Mockito.when(cacheClient.get("bookByNameAndAuthor", "Book Name-Author Name"))
+                .thenReturn(Mono.just(new SimpleValueWrapper(createBook())));
+
+        webTestClient.get()
+                .uri("/api/v2/book?name={name}&author={author}", "Book Name", "Author Name")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.categoryName").isEqualTo("Category Name")
+                .jsonPath("$.publicationDate").isEqualTo("2012-12-12");
+
+        Mockito.verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    public void whenGetUncachedBookByNameAndAuthor_thenQueryAndCacheBook() {
+        Book book = createBook();
+        Mockito.when(cacheClient.get("bookByNameAndAuthor", "Book Name-Author Name"))
+                .thenReturn(Mono.empty());
+        Mockito.when(bookRepository.findFirstBookByNameAndAuthorOrderByIdAsc("Book Name", "Author Name"))
+                .thenReturn(Mono.just(book));
+        Mockito.when(cacheClient.put("bookByNameAndAuthor", "Book Name-Author Name", book))
+                .thenReturn(Mono.just(true));
+
+        webTestClient.get()
+                .uri("/api/v2/book?name={name}&author={author}", "Book Name", "Author Name")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Book Name");
+
+        Mockito.verify(bookRepository, Mockito.times(1))
+                .findFirstBookByNameAndAuthorOrderByIdAsc("Book Name", "Author Name");
+        Mockito.verify(cacheClient, Mockito.times(1))
+                .put("bookByNameAndAuthor", "Book Name-Author Name", book);
+    }
+
+    @Test
+    public void whenGetMissingBookByNameAndAuthor_thenReturnNotFoundWithoutCaching() {
+        Mockito.when(cacheClient.get("bookByNameAndAuthor", "Book Name-Author Name"))
+                .thenReturn(Mono.empty());
+        Mockito.when(bookRepository.findFirstBookByNameAndAuthorOrderByIdAsc("Book Name", "Author Name"))
+                .thenReturn(Mono.empty());
+
+        webTestClient.get()
+                .uri("/api/v2/book?name={name}&author={author}", "Book Name", "Author Name")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.errorMessage").isEqualTo(String.format(
+                        ExceptionMessage.BOOK_BY_NAME_AND_AUTHOR_NOT_FOUND, "Book Name", "Author Name"));
+
+        Mockito.verify(cacheClient, Mockito.never())
+                .put(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenGetBookByNameAndAuthorCachedAsMissingByBlockingApi_thenReturnNotFound() {
+        ReactiveRedisTemplate<String, byte[]> reactiveRedisTemplate = Mockito.mock(ReactiveRedisTemplate.class);
+        ReactiveValueOperations<String, byte[]> valueOperations = Mockito.mock(ReactiveValueOperations.class);
+        AppCacheProperties cacheProperties = new AppCacheProperties();
+        cacheProperties.getCodecs().put("bookByNameAndAuthor", CacheCodec.BINARY);
+        ReactiveBookHandler handler = new ReactiveBookHandler(
+                bookRepository, new ReactiveCacheClient(reactiveRedisTemplate, cacheProperties), new BookMapper());
+
+        Mockito.when(reactiveRedisTemplate.opsForValue())
+                .thenReturn(valueOperations);
+        Mockito.when(valueOperations.get("bookByNameAndAuthor::Book Name-Author Name"))
+                .thenReturn(Mono.just(new BookRedisSerializer().serialize(NullValue.INSTANCE)));
+
+        WebTestClient.bindToRouterFunction(RouterFunctions.route()
+                        .GET("/api/v2/book", handler::getBookByNameAndAuthor)
+                        .build())
+                .build()
+                .get()
+                .uri("/api/v2/book?name={name}&author={author}", "Book Name", "Author Name")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.errorMessage").isEqualTo(String.format(
+                        ExceptionMessage.BOOK_BY_NAME_AND_AUTHOR_NOT_FOUND, "Book Name", "Author Name"));
+
+        Mockito.verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    public void whenGetBookByBlankName_thenReturnBadRequest() {
+        webTestClient.get()
+                .uri("/api/v2/book?name= &author={author}", "Author Name")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errorMessage").isEqualTo(ExceptionMessage.BLANK_BOOK_NAME);
+
+        Mockito.verifyNoInteractions(bookRepository, cacheClient);
+    }
+
+    @Test
+    public void whenGetBooksByCategoryName_thenCacheVersionedPage() {
+        List<BookResponse> books = List.of(createBookResponse(1L), createBookResponse(2L));
+        Mockito.when(cacheClient.currentVersion("Category Name"))
+                .thenReturn(Mono.just(3L));
+        Mockito.when(cacheClient.get("booksByCategoryName", "Category Name-3-0-2"))
+                .thenReturn(Mono.empty());
+        Mockito.when(bookRepository.findBookResponsesByCategoryName("Category Name", 0L, 2))
+                .thenReturn(Flux.fromIterable(books));
+        Mockito.when(cacheClient.put("booksByCategoryName", "Category Name-3-0-2", books))
+                .thenReturn(Mono.just(true));
+
+        webTestClient.get()
+                .uri("/api/v2/book/category?name={name}&limit=2", "Category Name")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.books.length()").isEqualTo(2)
+                .jsonPath("$.nextCursor").isEqualTo(2);
+
+        Mockito.verify(cacheClient, Mockito.times(1))
+                .put("booksByCategoryName", "Category Name-3-0-2", books);
+    }
+
+    @Test
+    public void whenGetBooksByCategoryNameAsNdjson_thenStreamBooksWithoutCache() {
+        Mockito.when(bookRepository.findBookResponsesByCategoryName("Category Name", 5L, 50))
+                .thenReturn(Flux.just(createBookResponse(6L), createBookResponse(7L)));
+
+        webTestClient.get()
+                .uri("/api/v2/book/category?name={name}&cursor=5", "Category Name")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BookResponse.class)
+                .hasSize(2);
+
+        Mockito.verify(cacheClient, Mockito.never())
+                .get(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void whenGetBooksByCategoryNameWithInvalidLimit_thenReturnBadRequest() {
+        webTestClient.get()
+                .uri("/api/v2/book/category?name={name}&limit=1001", "Category Name")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errorMessage").isEqualTo(ExceptionMessage.INVALID_PAGE_LIMIT);
+    }
+
+    private Book createBook() {
+        return Book.builder()
+                .id(1L)
+                .name("Book Name")
+                .author("Author Name")
+                .category(new Category(1L, "Category Name"))
+                .publicationDate(LocalDate.of(2012, 12, 12))
+                .build();
+    }
+
+    private BookResponse createBookResponse(Long id) {
+        return new BookResponse(id, "Book Name " + id, "Author Name", "Category Name", LocalDate.of(2012, 12, 12));
+    }
+}